@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
+
+/**
+ * <p>
+ * Base of the chunk-base benchmarks: starts batch-showcase on an in-memory HSQLDB (schema created by its flyway
+ * migrations) and creates the readers, processor and writer as the step configuration does, but with the page and
+ * chunk sizes of the benchmark parameters.
+ * </p>
+ *
+ * <p>
+ * The components are created without a <code>FaultInjector</code>, so no simulated error is ever triggered (the ids
+ * of the benchmark data are above the ones of <code>ChunkBaseBatchSimulation</code> anyway).
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public abstract class AbstractChunkBaseBenchmark {
+
+    protected static final int FIRST_ID = 1001;
+
+    private static final String[] APPLICATION_ARGS = {
+        // command line arguments: they take precedence over the application.properties of batch-showcase
+        "--spring.datasource.url=jdbc:hsqldb:mem:benchmark",
+        // the INFO log of every read/processed/written item would be the main thing measured
+        "--logging.config=classpath:logback-benchmark.xml"
+    };
+
+    protected ConfigurableApplicationContext context;
+    protected PlatformTransactionManager transactionManager;
+    protected TransactionTemplate transactionTemplate;
+    protected JdbcTemplate jdbcTemplate;
+
+    protected void startContext() {
+        context = new SpringApplicationBuilder(BenchmarkConfiguration.class).web(false)
+                                                                            .bannerMode(Banner.Mode.OFF)
+                                                                            .run(APPLICATION_ARGS);
+        transactionManager = context.getBean(PlatformTransactionManager.class);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    protected void stopContext() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+
+    /**
+     * Replaces the content of both tables by <code>rowCount</code> rows in customer_tmp.
+     */
+    protected void resetData(int rowCount) {
+        jdbcTemplate.update("DELETE FROM customer");
+        jdbcTemplate.update("DELETE FROM customer_tmp");
+
+        List<Object[]> batchArgs = new ArrayList<>(rowCount);
+        for (CustomerTmp c : customerTmps(rowCount)) {
+            batchArgs.add(new Object[] { c.getId(), c.getName() });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO customer_tmp (id, name) VALUES (?, ?)", batchArgs);
+    }
+
+    /**
+     * Injects the dependencies of <code>bean</code> and calls its <code>@PostConstruct</code> methods, as for a bean
+     * of the step configuration.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T autowire(T bean) {
+        AutowireCapableBeanFactory beanFactory = context.getAutowireCapableBeanFactory();
+        beanFactory.autowireBean(bean);
+        return (T) beanFactory.initializeBean(bean, bean.getClass().getName());
+    }
+
+    protected static List<CustomerTmp> customerTmps(int count) {
+        List<CustomerTmp> customerTmps = new ArrayList<>(count);
+        for (int id = FIRST_ID; id < FIRST_ID + count; id++) {
+            CustomerTmp c = new CustomerTmp();
+            c.setId(id);
+            c.setName("name" + id);
+            customerTmps.add(c);
+        }
+        return customerTmps;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.benchmark;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import xyz.codeityourself.springshowcases.batch.jpa.BatchPersistentConfiguration;
+import xyz.codeityourself.springshowcases.batch.jpa.support.TransactionalStatelessSessionProvider;
+
+/**
+ * The persistence part of batch-showcase only (data source, JPA, repositories, flyway), without spring-batch: the
+ * benchmarks drive the readers, processor and writer themselves, one transaction per chunk as the step does.
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+@EnableAutoConfiguration
+@Import({ BatchPersistentConfiguration.class })
+@Configuration
+public class BenchmarkConfiguration {
+
+    @Bean
+    TransactionalStatelessSessionProvider statelessSessionProvider(EntityManagerFactory entityManagerFactory,
+                                                                   DataSource dataSource) {
+        return new TransactionalStatelessSessionProvider(entityManagerFactory, dataSource);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseProcessor;
+import xyz.codeityourself.springshowcases.batch.jpa.entity.Customer;
+import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
+import xyz.codeityourself.springshowcases.batch.jpa.support.SavepointItemProcessor;
+import xyz.codeityourself.springshowcases.batch.support.JdbcSavepointTemplate;
+
+/**
+ * <p>
+ * Processes one chunk of <code>chunkSize</code> items in a transaction. One operation is the whole chunk.
+ * </p>
+ *
+ * <p>
+ * With <code>saveOnProcess</code> (writer=jpa), every item is saved and flushed by the processor. The transaction is
+ * rolled back at the end, so that every operation inserts the same customers.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g", "-Dlogback.configurationFile=logback-benchmark.xml" })
+@State(Scope.Benchmark)
+public class ProcessorBenchmark extends AbstractChunkBaseBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int chunkSize;
+
+    @Param({ "true", "false" })
+    private boolean saveOnProcess;
+
+    @Param({ "false", "true" })
+    private boolean processInSavepoint;
+
+    private ItemProcessor<CustomerTmp, Customer> itemProcessor;
+    private List<CustomerTmp> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        startContext();
+        resetData(0);
+
+        ChunkBaseProcessor processor = autowire(new ChunkBaseProcessor());
+        processor.setSaveOnProcess(saveOnProcess);
+        if (processInSavepoint) {
+            JdbcSavepointTemplate savepointTemplate = new JdbcSavepointTemplate(context.getBean(DataSource.class));
+            itemProcessor = autowire(new SavepointItemProcessor<>(processor, savepointTemplate));
+        } else {
+            itemProcessor = processor;
+        }
+        items = customerTmps(chunkSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stopContext();
+    }
+
+    @Benchmark
+    public void processChunk(Blackhole blackhole) throws Exception {
+        TransactionStatus transaction = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            for (CustomerTmp item : items) {
+                blackhole.consume(itemProcessor.process(item));
+            }
+        } finally {
+            transactionManager.rollback(transaction);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.benchmark;
+
+import static java.lang.String.format;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.util.Assert;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.AbstractReadAheadItemReader;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseProperties.ReaderType;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseReader;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.CursorChunkBaseReader;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.KeysetChunkBaseReader;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.StatelessChunkBaseReader;
+import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
+
+/**
+ * <p>
+ * Reads the whole customer_tmp table with each reader of the copyCustomer step, one transaction per chunk. One
+ * operation is the read of the whole table, i.e. <code>rows</code> items.
+ * </p>
+ *
+ * <p>
+ * The cursor reader fetches <code>pageSize</code> rows per round trip, so that a page is one round trip for every
+ * reader.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g", "-Dlogback.configurationFile=logback-benchmark.xml" })
+@State(Scope.Benchmark)
+public class ReaderBenchmark extends AbstractChunkBaseBenchmark {
+
+    @Param({ "PAGE", "KEYSET", "CURSOR", "STATELESS" })
+    private ReaderType reader;
+
+    @Param({ "10", "100", "1000" })
+    private int pageSize;
+
+    @Param({ "10", "100" })
+    private int chunkSize;
+
+    @Param({ "1000", "10000" })
+    private int rows;
+
+    // keyset and cursor readers only
+    @Param({ "0" })
+    private int prefetchPages;
+
+    private AbstractReadAheadItemReader<CustomerTmp> itemReader;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        startContext();
+        resetData(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stopContext();
+    }
+
+    // a reader can read the table only once
+    @Setup(Level.Invocation)
+    public void openReader() {
+        itemReader = newReader();
+        itemReader.open(new ExecutionContext());
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeReader() {
+        itemReader.close();
+    }
+
+    @Benchmark
+    public int readTable() {
+        int readCount = 0;
+        int chunkReadCount;
+        do {
+            chunkReadCount = transactionTemplate.execute(status -> readChunk());
+            readCount += chunkReadCount;
+        } while (chunkReadCount == chunkSize);
+
+        Assert.state(readCount == rows, format("Read %d items instead of %d", readCount, rows));
+        return readCount;
+    }
+
+    private int readChunk() {
+        int readCount = 0;
+        while (readCount < chunkSize && itemReader.read() != null) {
+            readCount++;
+        }
+        itemReader.onChunkSuccessfullyFinished(null);
+        return readCount;
+    }
+
+    private AbstractReadAheadItemReader<CustomerTmp> newReader() {
+        AbstractReadAheadItemReader<CustomerTmp> newReader;
+        switch (reader) {
+            case KEYSET:
+                newReader = new KeysetChunkBaseReader() {
+                    @Override
+                    protected int getChunkSize() {
+                        return chunkSize;
+                    }
+                };
+                break;
+            case STATELESS:
+                newReader = new StatelessChunkBaseReader() {
+                    @Override
+                    protected int getChunkSize() {
+                        return chunkSize;
+                    }
+                };
+                break;
+            case CURSOR:
+                CursorChunkBaseReader cursorReader = new CursorChunkBaseReader() {
+                    @Override
+                    protected int getChunkSize() {
+                        return chunkSize;
+                    }
+                };
+                cursorReader.setFetchSize(pageSize);
+                newReader = cursorReader;
+                break;
+            case PAGE:
+            default:
+                newReader = new ChunkBaseReader() {
+                    @Override
+                    protected int getChunkSize() {
+                        return chunkSize;
+                    }
+                };
+                break;
+        }
+        newReader = autowire(newReader);
+        // after autowire(): @PostConstruct sets the page size of the showcase
+        newReader.setPageSize(pageSize);
+        newReader.setPrefetchPageCount(prefetchPages);
+        return newReader;
+    }
+}
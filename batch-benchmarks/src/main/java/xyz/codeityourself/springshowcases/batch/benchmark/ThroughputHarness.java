@@ -0,0 +1,266 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.benchmark;
+
+import static java.lang.String.format;
+import static xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ExecutionSummaryTasklet.CHUNK_LATENCY_MAX_MS;
+import static xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ExecutionSummaryTasklet.CHUNK_LATENCY_P50_MS;
+import static xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ExecutionSummaryTasklet.CHUNK_LATENCY_P99_MS;
+import static xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ExecutionSummaryTasklet.phaseLatencyP99Key;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.CommandLinePropertySource;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import xyz.codeityourself.springshowcases.batch.jpa.JpaBatchConfiguration;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseBatchConfiguration;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseProperties;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.GenerateCustomerTmpBatchConfiguration;
+import xyz.codeityourself.springshowcases.batch.support.ChunkMetricsListener.Phase;
+
+/**
+ * <p>
+ * Runs {@link ChunkBaseBatchConfiguration#JOB_NAME} end to end, in this JVM and with the configuration of
+ * batch-showcase (HSQLDB server included), on data generated beforehand by
+ * {@link GenerateCustomerTmpBatchConfiguration#JOB_NAME}. Then reports the throughput of the copy step, its commit
+ * count, the p50/p99 latency of its chunk transactions and the peak heap used by the job.
+ * </p>
+ *
+ * <p>
+ * The results are compared with the ones of the baseline file, when there is one. The first run writes it, and
+ * <code>--update-baseline</code> replaces it by the results of the run. A warning is printed when the step options
+ * or the data differ from the baseline ones.
+ * </p>
+ *
+ * <pre>
+ *   java -cp batch-benchmarks/target/benchmarks.jar [-Dshowcase.chunk-base.xxx=...] \
+ *        xyz.codeityourself.springshowcases.batch.benchmark.ThroughputHarness \
+ *        [--rows=1000000] [--keyDensity=1.0] [--nameMinLength=5] [--nameMaxLength=20] [--seed=0] \
+ *        [--skip-generate] [--baseline=throughput-baseline.properties] [--update-baseline]
+ * </pre>
+ *
+ * <p>
+ * The items are not logged one by one (see <code>logback-benchmark.xml</code>) unless another logback configuration
+ * is given by <code>-Dlogback.configurationFile</code>.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class ThroughputHarness {
+
+    private static final String LOGBACK_CONFIGURATION = "logback.configurationFile";
+
+    private static final List<String> DATA_PARAMETERS = Arrays.asList(
+        GenerateCustomerTmpBatchConfiguration.ROWS,
+        GenerateCustomerTmpBatchConfiguration.KEY_DENSITY,
+        GenerateCustomerTmpBatchConfiguration.NAME_MIN_LENGTH,
+        GenerateCustomerTmpBatchConfiguration.NAME_MAX_LENGTH,
+        GenerateCustomerTmpBatchConfiguration.SEED);
+
+    // prefixes of the results describing the run instead of measuring it
+    private static final String DATA = "data.";
+    private static final String CONFIG = "config.";
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty(LOGBACK_CONFIGURATION) == null) {
+            System.setProperty(LOGBACK_CONFIGURATION, "logback-benchmark.xml");
+        }
+        CommandLinePropertySource<?> options = new SimpleCommandLinePropertySource(args);
+        Path baselineFile = Paths.get(options.containsProperty("baseline")
+                                          ? options.getProperty("baseline")
+                                          : "throughput-baseline.properties");
+
+        Map<String, String> results = new LinkedHashMap<>();
+        try (AnnotationConfigApplicationContext context =
+                 new AnnotationConfigApplicationContext(JpaBatchConfiguration.class)) {
+            JobLauncher jobLauncher = context.getBean(JobLauncher.class);
+
+            if (!options.containsProperty("skip-generate")) {
+                JobParametersBuilder dataParameters = new JobParametersBuilder();
+                for (String name : DATA_PARAMETERS) {
+                    if (options.containsProperty(name)) {
+                        dataParameters.addString(name, options.getProperty(name));
+                        results.put(DATA + name, options.getProperty(name));
+                    }
+                }
+                System.out.println("Generating customer_tmp...");
+                launch(jobLauncher, context.getBean(GenerateCustomerTmpBatchConfiguration.JOB_NAME, Job.class),
+                       dataParameters.toJobParameters());
+            }
+            BeanWrapper properties = new BeanWrapperImpl(context.getBean(ChunkBaseProperties.class));
+            for (PropertyDescriptor property : properties.getPropertyDescriptors()) {
+                if (properties.isWritableProperty(property.getName())) {
+                    Object value = properties.getPropertyValue(property.getName());
+                    results.put(CONFIG + property.getName(), String.valueOf(value));
+                }
+            }
+
+            System.out.println("Running " + ChunkBaseBatchConfiguration.JOB_NAME + "...");
+            resetPeakHeap();
+            Job copyJob = context.getBean(ChunkBaseBatchConfiguration.JOB_NAME, Job.class);
+            JobExecution execution = launch(jobLauncher, copyJob, new JobParameters());
+            long peakHeapBytes = getPeakHeapBytes();
+
+            putMeasures(results, execution, peakHeapBytes);
+        }
+
+        report(results, baselineFile, options.containsProperty("update-baseline"));
+    }
+
+    private static JobExecution launch(JobLauncher jobLauncher, Job job, JobParameters parameters) throws Exception {
+        JobExecution execution = jobLauncher.run(job, job.getJobParametersIncrementer().getNext(parameters));
+        if (execution.getStatus() != BatchStatus.COMPLETED) {
+            throw new IllegalStateException(format("%s ended %s: %s", job.getName(), execution.getStatus(),
+                                                   execution.getExitStatus().getExitDescription()));
+        }
+        return execution;
+    }
+
+    private static void putMeasures(Map<String, String> results, JobExecution execution, long peakHeapBytes) {
+        StepExecution copyStep = execution.getStepExecutions().stream()
+            .filter(step -> step.getStepName().equals(ChunkBaseBatchConfiguration.MAIN_STEP_NAME))
+            .findAny()
+            .orElseThrow(() -> new IllegalStateException(ChunkBaseBatchConfiguration.MAIN_STEP_NAME + " not run"));
+        int rows = copyStep.getReadCount() + copyStep.getReadSkipCount();
+        long copyMillis = Math.max(copyStep.getEndTime().getTime() - copyStep.getStartTime().getTime(), 1);
+        ExecutionContext jobContext = execution.getExecutionContext();
+
+        results.put("rows", String.valueOf(rows));
+        results.put("itemsWritten", String.valueOf(copyStep.getWriteCount()));
+        results.put("copySeconds", decimal(copyMillis / 1000.0));
+        results.put("rowsPerSecond", decimal(rows * 1000.0 / copyMillis));
+        results.put("commits", String.valueOf(copyStep.getCommitCount()));
+        results.put("rollbacks", String.valueOf(copyStep.getRollbackCount()));
+        results.put("chunkLatencyP50Ms", decimal(jobContext.getDouble(CHUNK_LATENCY_P50_MS)));
+        results.put("chunkLatencyP99Ms", decimal(jobContext.getDouble(CHUNK_LATENCY_P99_MS)));
+        results.put("chunkLatencyMaxMs", decimal(jobContext.getDouble(CHUNK_LATENCY_MAX_MS)));
+        for (Phase phase : Phase.values()) {
+            results.put(phaseLatencyP99Key(phase), decimal(jobContext.getDouble(phaseLatencyP99Key(phase))));
+        }
+        results.put("peakHeapMb", decimal(peakHeapBytes / (1024.0 * 1024.0)));
+    }
+
+    // not localized: the baseline is read back by Double.parseDouble
+    private static String decimal(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // the sum of the peaks of the heap pools: an upper bound, the pools do not peak all at the same time
+    private static long getPeakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static void report(Map<String, String> results, Path baselineFile, boolean updateBaseline)
+        throws IOException {
+        Properties baseline = null;
+        if (Files.exists(baselineFile)) {
+            baseline = new Properties();
+            try (Reader reader = Files.newBufferedReader(baselineFile, StandardCharsets.UTF_8)) {
+                baseline.load(reader);
+            }
+        }
+
+        System.out.println();
+        System.out.println(baseline == null ? "Results:" : "Results (vs baseline " + baselineFile + "):");
+        List<String> mismatches = new ArrayList<>();
+        for (Map.Entry<String, String> result : results.entrySet()) {
+            String name = result.getKey();
+            String value = result.getValue();
+            String baselineValue = baseline == null ? null : baseline.getProperty(name);
+            if (name.startsWith(DATA) || name.startsWith(CONFIG)) {
+                if (baseline != null && !value.equals(baselineValue)) {
+                    mismatches.add(format("%s: %s (baseline: %s)", name, value, baselineValue));
+                }
+                continue;
+            }
+            System.out.println(format("  %-20s %14s%s", name, value, compare(value, baselineValue)));
+        }
+        if (!mismatches.isEmpty()) {
+            System.out.println("WARNING: not run as the baseline, the comparison may not be meaningful:");
+            mismatches.forEach(mismatch -> System.out.println("  " + mismatch));
+        }
+
+        if (baseline == null || updateBaseline) {
+            List<String> lines = new ArrayList<>();
+            lines.add("# " + ThroughputHarness.class.getSimpleName() + " baseline, " + new Date());
+            results.forEach((name, value) -> lines.add(name + "=" + value));
+            Files.write(baselineFile, lines, StandardCharsets.UTF_8);
+            System.out.println("Baseline saved to " + baselineFile.toAbsolutePath());
+        }
+    }
+
+    private static String compare(String value, String baselineValue) {
+        if (baselineValue == null) {
+            return "";
+        }
+        double current = Double.parseDouble(value);
+        double base = Double.parseDouble(baselineValue);
+        if (base == 0) {
+            return format("  (baseline: %s)", baselineValue);
+        }
+        return format("  (baseline: %14s, %+7.1f%%)", baselineValue, (current - base) * 100 / base);
+    }
+}
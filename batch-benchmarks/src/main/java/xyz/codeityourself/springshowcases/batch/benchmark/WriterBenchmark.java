@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseProcessor;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseProperties.WriterType;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseWriter;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.JdbcBatchChunkBaseWriter;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.StatelessChunkBaseWriter;
+import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
+
+/**
+ * <p>
+ * Persists one chunk of <code>chunkSize</code> items in a transaction, the way the copyCustomer step does with each
+ * writer: the processor then the writer. With writer=jpa, the items are saved by the processor and the writer does
+ * nothing, thus the processor is part of the measure for every writer. One operation is the whole chunk.
+ * </p>
+ *
+ * <p>
+ * The transaction is rolled back at the end, so that every operation inserts the same customers.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g", "-Dlogback.configurationFile=logback-benchmark.xml" })
+@State(Scope.Benchmark)
+public class WriterBenchmark extends AbstractChunkBaseBenchmark {
+
+    @Param({ "JPA", "JDBC", "STATELESS" })
+    private WriterType writer;
+
+    @Param({ "10", "100", "1000" })
+    private int chunkSize;
+
+    // jdbc writer only
+    @Param({ "100" })
+    private int rowsPerInsert;
+
+    private ChunkBaseProcessor processor;
+    private ChunkBaseWriter itemWriter;
+    private List<CustomerTmp> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        startContext();
+        resetData(0);
+
+        processor = autowire(new ChunkBaseProcessor());
+        processor.setSaveOnProcess(writer == WriterType.JPA);
+        switch (writer) {
+            case JDBC:
+                JdbcBatchChunkBaseWriter jdbcWriter = autowire(new JdbcBatchChunkBaseWriter());
+                jdbcWriter.setRowsPerStatement(rowsPerInsert);
+                itemWriter = jdbcWriter;
+                break;
+            case STATELESS:
+                itemWriter = autowire(new StatelessChunkBaseWriter());
+                break;
+            case JPA:
+            default:
+                itemWriter = autowire(new ChunkBaseWriter());
+                break;
+        }
+        items = customerTmps(chunkSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stopContext();
+    }
+
+    @Benchmark
+    public void writeChunk() {
+        TransactionStatus transaction = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            itemWriter.write(items.stream()
+                                  .map(processor::process)
+                                  .collect(Collectors.toList()));
+        } finally {
+            transactionManager.rollback(transaction);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import xyz.codeityourself.springshowcases.batch.daemon.JobCommands;
+
+/**
+ * Sends one command to the {@link BatchDaemon} and prints the reply, e.g.
+ * <code>launch jobChunkBaseShowCase -priority=5 latencyMicros=500</code>, <code>status</code>, see
+ * {@link JobCommands}. The port is the system property <code>showcase.daemon.port</code> (default: 7070). Exits with 1
+ * when the command failed.
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class BatchClient {
+    public static void main(String[] args) throws Exception {
+        int port = Integer.getInteger("showcase.daemon.port", 7070);
+
+        boolean failed = false;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(),
+                                                                      StandardCharsets.UTF_8), true);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                                                                          StandardCharsets.UTF_8))) {
+            out.println(String.join(" ", args));
+            socket.shutdownOutput();
+            String line;
+            while ((line = in.readLine()) != null) {
+                System.out.println(line);
+                failed |= line.startsWith("ERROR");
+            }
+        }
+        System.exit(failed ? 1 : 0);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import xyz.codeityourself.springshowcases.batch.daemon.BatchDaemonConfiguration;
+import xyz.codeityourself.springshowcases.batch.daemon.JobCommands;
+import xyz.codeityourself.springshowcases.batch.jpa.JpaBatchConfiguration;
+
+/**
+ * <p>
+ * Starts the batch application once and keeps it running: the jobs are launched by commands (see
+ * {@link JobCommands}) sent with {@link BatchClient}, dropped in a directory or scheduled, see
+ * <code>showcase.daemon.*</code>. Unlike {@link BatchRunner}, a run does not pay for a new JVM and the start of the
+ * spring context (hibernate, flyway, connection pool, JIT warm-up): the jobs start within milliseconds, several at
+ * a time (see <code>showcase.job-launcher.*</code>).
+ * </p>
+ *
+ * <p>
+ * Stops on the <code>shutdown</code> command or a signal, once the running jobs ended.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class BatchDaemon {
+    public static void main(String[] args) throws Exception {
+        AnnotationConfigApplicationContext context =
+            new AnnotationConfigApplicationContext(JpaBatchConfiguration.class, BatchDaemonConfiguration.class);
+        context.registerShutdownHook();
+
+        context.getBean(JobCommands.class).awaitShutdown();
+        context.close();
+        System.exit(0);
+    }
+}
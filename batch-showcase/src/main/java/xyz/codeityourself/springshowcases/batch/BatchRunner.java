@@ -23,11 +23,22 @@
  */
 package xyz.codeityourself.springshowcases.batch;
 
+import java.util.Arrays;
+import java.util.stream.Stream;
 import org.springframework.batch.core.launch.support.CommandLineJobRunner;
 import xyz.codeityourself.springshowcases.batch.jpa.JpaBatchConfiguration;
 import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseBatchConfiguration;
+import xyz.codeityourself.springshowcases.batch.jpa.support.ChunkBaseBatchSimulation;
 
 /**
+ * Runs {@link ChunkBaseBatchConfiguration#JOB_NAME}. The arguments are job parameters, e.g. the simulated failures,
+ * the database latency and the clean up: <code>faultProcessRate=0.001 faultSeed=42 latencyMicros=500
+ * cleanStrategy=truncate</code>. Those not given are reset to their defaults, not taken from the previous run.
+ * <p>
+ * <code>-restart</code> instead restarts the last failed execution, with its parameters: the steps completed are
+ * skipped, the failed one resumes after its last commit.
+ * </p>
+ *
  * @author Bao Ho (hotribao@gmail.com)
  * @since 03.05.2019
  */
@@ -36,6 +47,30 @@ public class BatchRunner {
         final String configClass = JpaBatchConfiguration.class.getName();
         final String jobName = ChunkBaseBatchConfiguration.JOB_NAME;
 
-        CommandLineJobRunner.main(new String[] { "-next", configClass, jobName });
+        if (args.length > 0 && args[0].equals("-restart")) {
+            CommandLineJobRunner.main(new String[] { "-restart", configClass, jobName });
+            return;
+        }
+
+        // "-next" copies the parameters of the previous run, given later override
+        String[] defaults = {
+            ChunkBaseBatchConfiguration.FAULT_READ_IDS + "=" + ChunkBaseBatchSimulation.READ_ERROR_IDS,
+            ChunkBaseBatchConfiguration.FAULT_PROCESS_IDS + "=" + ChunkBaseBatchSimulation.PROCESS_ERROR_IDS,
+            ChunkBaseBatchConfiguration.FAULT_WRITE_IDS + "=" + ChunkBaseBatchSimulation.WRITE_ERROR_IDS,
+            ChunkBaseBatchConfiguration.FAULT_COMMIT_IDS + "=none",
+            ChunkBaseBatchConfiguration.FAULT_READ_RATE + "=0",
+            ChunkBaseBatchConfiguration.FAULT_PROCESS_RATE + "=0",
+            ChunkBaseBatchConfiguration.FAULT_WRITE_RATE + "=0",
+            ChunkBaseBatchConfiguration.FAULT_COMMIT_RATE + "=0",
+            ChunkBaseBatchConfiguration.FAULT_SEED + "=0",
+            ChunkBaseBatchConfiguration.LATENCY_MICROS + "=0",
+            ChunkBaseBatchConfiguration.CLEAN_STRATEGY + "=delete",
+            ChunkBaseBatchConfiguration.CLEAN_BATCH_ROWS + "=10000"
+        };
+
+        CommandLineJobRunner.main(Stream.of(Stream.of("-next", configClass, jobName), Arrays.stream(defaults),
+                                            Arrays.stream(args))
+                                      .flatMap(s -> s)
+                                      .toArray(String[]::new));
     }
 }
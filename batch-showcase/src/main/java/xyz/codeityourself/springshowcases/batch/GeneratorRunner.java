@@ -0,0 +1,47 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.springframework.batch.core.launch.support.CommandLineJobRunner;
+import xyz.codeityourself.springshowcases.batch.jpa.JpaBatchConfiguration;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.GenerateCustomerTmpBatchConfiguration;
+
+/**
+ * Fills <code>customer_tmp</code> with synthetic data, see {@link GenerateCustomerTmpBatchConfiguration}. The
+ * arguments are the job parameters, e.g. <code>rows=5000000 keyDensity=0.5 nameMinLength=10 nameMaxLength=50</code>.
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class GeneratorRunner {
+    public static void main(String[] args) throws Exception {
+        final String configClass = JpaBatchConfiguration.class.getName();
+        final String jobName = GenerateCustomerTmpBatchConfiguration.JOB_NAME;
+
+        CommandLineJobRunner.main(Stream.concat(Stream.of("-next", configClass, jobName), Arrays.stream(args))
+                                      .toArray(String[]::new));
+    }
+}
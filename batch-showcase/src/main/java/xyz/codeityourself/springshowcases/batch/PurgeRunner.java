@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.springframework.batch.core.launch.support.CommandLineJobRunner;
+import xyz.codeityourself.springshowcases.batch.jpa.JpaBatchConfiguration;
+import xyz.codeityourself.springshowcases.batch.jpa.housekeeping.PurgeJobRepositoryBatchConfiguration;
+
+/**
+ * Removes the old executions from the job repository, see {@link PurgeJobRepositoryBatchConfiguration}. The
+ * arguments are the job parameters, e.g. <code>retentionDays=7 keepLastInstances=5 batchInstances=500</code>. Those
+ * not given are reset to their defaults, not taken from the previous run.
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class PurgeRunner {
+    public static void main(String[] args) throws Exception {
+        final String configClass = JpaBatchConfiguration.class.getName();
+        final String jobName = PurgeJobRepositoryBatchConfiguration.JOB_NAME;
+
+        // "-next" copies the parameters of the previous run, given later override
+        String[] defaults = {
+            PurgeJobRepositoryBatchConfiguration.RETENTION_DAYS + "=30",
+            PurgeJobRepositoryBatchConfiguration.KEEP_LAST_INSTANCES + "=10",
+            PurgeJobRepositoryBatchConfiguration.BATCH_INSTANCES + "=100"
+        };
+
+        CommandLineJobRunner.main(Stream.of(Stream.of("-next", configClass, jobName), Arrays.stream(defaults),
+                                            Arrays.stream(args))
+                                      .flatMap(s -> s)
+                                      .toArray(String[]::new));
+    }
+}
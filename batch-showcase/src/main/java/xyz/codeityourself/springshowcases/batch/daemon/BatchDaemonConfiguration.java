@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.daemon;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import xyz.codeityourself.springshowcases.batch.support.ConcurrentJobLauncher;
+
+/**
+ * The ways to send {@link JobCommands} to the daemon (see <code>BatchDaemon</code>) and the
+ * {@link ConcurrentJobLauncher} running them, on top of <code>JpaBatchConfiguration</code>. Not component-scanned:
+ * the command line runners do not start them.
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+@Configuration
+public class BatchDaemonConfiguration {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchDaemonConfiguration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // switches the database to MVCC transaction control at startup, see application.properties
+    @Value("${showcase.daemon.switch-to-mvcc:false}")
+    private boolean switchToMvcc;
+
+    // HSQLDB locks whole tables by default (LOCKS): the jobs run in parallel deadlock on the BATCH_* tables (every
+    // chunk transaction updates its step execution) and HSQLDB rolls one of them back. MVCC: row-level, the readers
+    // do not wait. A setting of the database, kept after the daemon stopped: only changed when asked to.
+    @PostConstruct
+    public void checkTransactionControl() {
+        String transactionControl = jdbcTemplate.queryForObject(
+            "SELECT PROPERTY_VALUE FROM INFORMATION_SCHEMA.SYSTEM_PROPERTIES WHERE PROPERTY_NAME = 'hsqldb.tx'",
+            String.class);
+        if ("mvcc".equalsIgnoreCase(transactionControl)) {
+            return;
+        }
+        if (switchToMvcc) {
+            jdbcTemplate.execute("SET DATABASE TRANSACTION CONTROL MVCC");
+            LOGGER.info("  [DAEMON ] database transaction control: {} -> MVCC", transactionControl);
+        } else {
+            LOGGER.warn("  [DAEMON ] database transaction control {}: jobs running in parallel may be rolled back "
+                            + "(deadlocks), see showcase.daemon.switch-to-mvcc", transactionControl);
+        }
+    }
+
+    // the jobs launched by the daemon, in parallel (the command line runners use the synchronous JobLauncher of the
+    // batchConfigurer). Its threads are only created by the first launch.
+    @Bean(destroyMethod = "close")
+    public ConcurrentJobLauncher concurrentJobLauncher(
+        JobRepository jobRepository,
+        @Value("${showcase.job-launcher.threads:4}") int threads,
+        @Value("${showcase.job-launcher.queue-capacity:100}") int queueCapacity,
+        @Value("${showcase.job-launcher.admission-timeout-millis:0}") long admissionTimeoutMillis,
+        @Value("${showcase.job-launcher.job-concurrency:}") String jobConcurrency) {
+        ConcurrentJobLauncher launcher = new ConcurrentJobLauncher(jobRepository, threads, queueCapacity);
+        launcher.setAdmissionTimeoutMillis(admissionTimeoutMillis);
+        Map<String, Integer> limits = new HashMap<>();
+        for (String limit : StringUtils.commaDelimitedListToStringArray(jobConcurrency)) {
+            String[] jobAndLimit = limit.trim().split(":");
+            Assert.isTrue(jobAndLimit.length == 2 && !jobAndLimit[0].trim().isEmpty()
+                              && jobAndLimit[1].trim().matches("\\d+"),
+                          "showcase.job-launcher.job-concurrency: job:limit expected, not '" + limit + "'");
+            limits.put(jobAndLimit[0].trim(), Integer.parseInt(jobAndLimit[1].trim()));
+        }
+        launcher.setJobConcurrency(limits);
+        return launcher;
+    }
+
+    @Bean
+    public JobCommands jobCommands() {
+        return new JobCommands();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public CommandSocketServer commandSocketServer(@Value("${showcase.daemon.port:7070}") int port) {
+        return new CommandSocketServer(jobCommands(), port);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public CommandDropDirectory commandDropDirectory(
+        @Value("${showcase.daemon.drop-directory:}") String directory,
+        @Value("${showcase.daemon.drop-poll-millis:1000}") long pollMillis) {
+        return new CommandDropDirectory(jobCommands(), directory, pollMillis);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public JobScheduler jobScheduler(@Value("${showcase.daemon.schedules:}") String schedules) {
+        JobScheduler scheduler = new JobScheduler(jobCommands(), schedules);
+        jobCommands().setScheduler(scheduler);
+        return scheduler;
+    }
+}
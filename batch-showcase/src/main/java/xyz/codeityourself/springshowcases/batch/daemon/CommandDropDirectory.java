@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.daemon;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * <p>
+ * Runs the {@link JobCommands} of the files <code>*.cmd</code> dropped in a directory, one command per line
+ * (blank lines and lines starting with <code>#</code> are ignored), the files in name order. The directory is
+ * polled every <code>pollMillis</code>. Disabled when no directory is set.
+ * </p>
+ *
+ * <p>
+ * A processed file is renamed <code>*.cmd.done</code> and the replies are written to <code>*.cmd.out</code>. A file
+ * is read as soon as it is seen: write it under another name, then rename it to <code>*.cmd</code>.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class CommandDropDirectory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CommandDropDirectory.class);
+
+    private final JobCommands commands;
+
+    private final String directory;
+
+    private final long pollMillis;
+
+    private ScheduledExecutorService poller;
+
+    public CommandDropDirectory(JobCommands commands, String directory, long pollMillis) {
+        this.commands = commands;
+        this.directory = directory;
+        this.pollMillis = pollMillis;
+    }
+
+    public void start() throws IOException {
+        if (directory == null || directory.trim().isEmpty()) {
+            return;
+        }
+        Path path = Files.createDirectories(Paths.get(directory.trim()));
+        poller = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("daemon-drop-"));
+        poller.scheduleWithFixedDelay(() -> poll(path), 0, pollMillis, TimeUnit.MILLISECONDS);
+        LOGGER.info("  [DAEMON ] watching {}", path.toAbsolutePath());
+    }
+
+    public void close() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    private void poll(Path path) {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> dropped = Files.newDirectoryStream(path, "*.cmd")) {
+            dropped.forEach(files::add);
+        } catch (IOException e) {
+            LOGGER.warn("  [DAEMON ] cannot list {}: {}", path, e.toString());
+            return;
+        }
+        Collections.sort(files);
+        for (Path file : files) {
+            try {
+                process(file);
+            } catch (IOException e) {
+                LOGGER.warn("  [DAEMON ] cannot process {}: {}", file, e.toString());
+            }
+        }
+    }
+
+    private void process(Path file) throws IOException {
+        // renamed first: a failure below does not run the commands again at the next poll
+        Path done = Files.move(file, file.resolveSibling(file.getFileName() + ".done"),
+                               StandardCopyOption.REPLACE_EXISTING);
+        List<String> replies = new ArrayList<>();
+        for (String line : Files.readAllLines(done, StandardCharsets.UTF_8)) {
+            String command = line.trim();
+            if (!command.isEmpty() && !command.startsWith("#")) {
+                replies.add(commands.execute(command));
+            }
+        }
+        Files.write(file.resolveSibling(file.getFileName() + ".out"), replies, StandardCharsets.UTF_8);
+        LOGGER.info("  [DAEMON ] {}: {} commands", file.getFileName(), replies.size());
+    }
+}
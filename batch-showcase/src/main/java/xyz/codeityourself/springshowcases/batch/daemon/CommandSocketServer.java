@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.daemon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Accepts {@link JobCommands} on a TCP port of the loopback interface only (no authentication: any local user can
+ * send commands): one command per line, the reply follows each of them, the connection is closed by the client
+ * (see <code>BatchClient</code>) or after <code>IDLE_TIMEOUT_MILLIS</code>. Disabled when the port is 0.
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class CommandSocketServer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CommandSocketServer.class);
+
+    private static final int IDLE_TIMEOUT_MILLIS = 60_000;
+
+    private static final int CONNECTIONS = 4;
+
+    private final JobCommands commands;
+
+    private final int port;
+
+    private ServerSocket serverSocket;
+
+    private ExecutorService connections;
+
+    public CommandSocketServer(JobCommands commands, int port) {
+        this.commands = commands;
+        this.port = port;
+    }
+
+    public void start() throws IOException {
+        if (port <= 0) {
+            return;
+        }
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        connections = Executors.newFixedThreadPool(CONNECTIONS, new CustomizableThreadFactory("daemon-socket-"));
+        Thread acceptor = new Thread(this::accept, "daemon-socket-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        LOGGER.info("  [DAEMON ] listening on {}", serverSocket.getLocalSocketAddress());
+    }
+
+    public void close() throws IOException {
+        if (serverSocket == null) {
+            return;
+        }
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                // closed
+            } catch (IOException e) {
+                LOGGER.warn("  [DAEMON ] accept failed: {}", e.toString());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket client = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(),
+                                                                          StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(client.getOutputStream(),
+                                                                      StandardCharsets.UTF_8), true)) {
+            client.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    out.println(commands.execute(line));
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("  [DAEMON ] connection failed: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.daemon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.converter.DefaultJobParametersConverter;
+import org.springframework.batch.core.converter.JobParametersConverter;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.util.StringUtils;
+import xyz.codeityourself.springshowcases.batch.support.ConcurrentJobLauncher;
+
+/**
+ * <p>
+ * The commands accepted by the daemon, one per line, whatever the way they come (socket, dropped file, schedule).
+ * The reply starts with <code>OK</code> or <code>ERROR</code>:
+ * <ul>
+ *     <li><code>launch &lt;job&gt; [-priority=&lt;n&gt;] [key=value ...]</code>: a new instance of the job, the
+ *     parameters as for {@link org.springframework.batch.core.launch.support.CommandLineJobRunner}
+ *     (e.g. <code>latencyMicros(long)=500</code>), then incremented by the job (a new <code>run.id</code>). Those
+ *     not given take the default of the job, not the value of the previous run</li>
+ *     <li><code>restart &lt;job&gt; [-priority=&lt;n&gt;]</code>: the last instance of the job, if its last execution
+ *     failed or was stopped</li>
+ *     <li><code>status</code>: the executions queued and running, the schedules</li>
+ *     <li><code>shutdown</code>: stops the daemon once the running jobs ended</li>
+ * </ul>
+ * The launches go through the {@link ConcurrentJobLauncher}, and return as soon as the execution is queued.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class JobCommands {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobCommands.class);
+
+    private static final String PRIORITY = "-priority=";
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ConcurrentJobLauncher jobLauncher;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    private final JobParametersConverter jobParametersConverter = new DefaultJobParametersConverter();
+
+    private final CountDownLatch shutdown = new CountDownLatch(1);
+
+    private JobScheduler scheduler;
+
+    public void setScheduler(JobScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @return the reply, one or more lines
+     */
+    public String execute(String commandLine) {
+        List<String> tokens = new ArrayList<>(Arrays.asList(StringUtils.tokenizeToStringArray(commandLine, " \t")));
+        if (tokens.isEmpty()) {
+            return "ERROR empty command";
+        }
+        String command = tokens.remove(0);
+        try {
+            switch (command) {
+                case "launch":
+                    return "OK " + describe(launch(tokens));
+                case "restart":
+                    return "OK " + describe(restart(tokens));
+                case "status":
+                    return status();
+                case "shutdown":
+                    LOGGER.info("  [DAEMON ] shutdown requested");
+                    shutdown.countDown();
+                    return "OK shutting down once the running jobs ended";
+                default:
+                    return "ERROR unknown command: " + command + " (launch, restart, status, shutdown)";
+            }
+        } catch (Exception e) {
+            LOGGER.warn("  [DAEMON ] {} failed: {}", commandLine, e.toString());
+            return "ERROR " + e.getMessage();
+        }
+    }
+
+    /**
+     * @param arguments the job name, then the priority and the job parameters
+     */
+    public JobExecution launch(List<String> arguments) throws JobExecutionException {
+        Job job = getJob(arguments);
+        List<String> parameters = new ArrayList<>(arguments.subList(1, arguments.size()));
+        int priority = removePriority(parameters);
+
+        Properties properties = StringUtils.splitArrayElementsIntoProperties(parameters.toArray(new String[0]), "=");
+        JobParameters jobParameters = jobParametersConverter.getJobParameters(properties != null ? properties
+                                                                                                  : new Properties());
+        if (job.getJobParametersIncrementer() != null) {
+            jobParameters = job.getJobParametersIncrementer().getNext(jobParameters);
+        }
+        return jobLauncher.run(job, jobParameters, priority);
+    }
+
+    public void awaitShutdown() throws InterruptedException {
+        shutdown.await();
+    }
+
+    private JobExecution restart(List<String> arguments) throws JobExecutionException {
+        Job job = getJob(arguments);
+        int priority = removePriority(new ArrayList<>(arguments.subList(1, arguments.size())));
+
+        List<JobInstance> lastInstances = jobExplorer.getJobInstances(job.getName(), 0, 1);
+        if (lastInstances.isEmpty()) {
+            throw new IllegalStateException("No instance of " + job.getName() + " to restart");
+        }
+        JobExecution lastExecution = jobExplorer.getJobExecutions(lastInstances.get(0)).stream()
+            .max(Comparator.comparing(JobExecution::getId))
+            .orElseThrow(() -> new IllegalStateException("No execution of " + job.getName() + " to restart"));
+        if (lastExecution.getStatus() != BatchStatus.FAILED && lastExecution.getStatus() != BatchStatus.STOPPED) {
+            throw new IllegalStateException("The last execution of " + job.getName() + " is "
+                                                + lastExecution.getStatus() + ", not restartable");
+        }
+        return jobLauncher.run(job, lastExecution.getJobParameters(), priority);
+    }
+
+    private String status() {
+        StringBuilder status = new StringBuilder(String.format("OK %d queued, %d running",
+                                                               jobLauncher.getQueuedCount(),
+                                                               jobLauncher.getRunningCount()));
+        for (String jobName : jobExplorer.getJobNames()) {
+            for (JobExecution execution : jobExplorer.findRunningJobExecutions(jobName)) {
+                status.append("\n  ").append(describe(execution)).append(' ').append(execution.getStatus());
+            }
+        }
+        if (scheduler != null) {
+            scheduler.getStatus().forEach(line -> status.append("\n  ").append(line));
+        }
+        return status.toString();
+    }
+
+    private Job getJob(List<String> arguments) {
+        if (arguments.isEmpty()) {
+            throw new IllegalArgumentException("Job name required");
+        }
+        String jobName = arguments.get(0);
+        if (!applicationContext.containsBean(jobName)) {
+            throw new IllegalArgumentException("Unknown job: " + jobName);
+        }
+        return applicationContext.getBean(jobName, Job.class);
+    }
+
+    private static int removePriority(List<String> parameters) {
+        int priority = ConcurrentJobLauncher.DEFAULT_PRIORITY;
+        for (int i = parameters.size() - 1; i >= 0; i--) {
+            if (parameters.get(i).startsWith(PRIORITY)) {
+                priority = Integer.parseInt(parameters.remove(i).substring(PRIORITY.length()));
+            }
+        }
+        return priority;
+    }
+
+    static String describe(JobExecution jobExecution) {
+        return jobExecution.getJobInstance().getJobName() + " #" + jobExecution.getId() + " "
+            + jobExecution.getJobParameters();
+    }
+}
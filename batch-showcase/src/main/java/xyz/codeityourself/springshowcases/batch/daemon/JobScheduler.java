@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.daemon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * Launches jobs on cron schedules. The schedules are separated by <code>;</code>, each one is the job name, the 6
+ * fields of a spring cron expression (second, minute, hour, day of month, month, day of week), then the arguments of
+ * {@link JobCommands} <code>launch</code>, e.g.
+ * <code>jobPurgeJobRepository 0 0 3 * * * retentionDays=7; jobChunkBaseShowCase 0 *&#47;15 * * * * -priority=5</code>.
+ * </p>
+ *
+ * <p>
+ * No overlap: while the execution launched by a schedule is queued or running, the next times of the schedule are
+ * skipped (and logged), they are not queued behind it. Only the executions launched by this daemon are known: a job
+ * run by another process at the same time is not seen.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class JobScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobScheduler.class);
+
+    private final JobCommands commands;
+
+    private final List<Schedule> schedules = new ArrayList<>();
+
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    public JobScheduler(JobCommands commands, String schedules) {
+        this.commands = commands;
+        for (String schedule : StringUtils.delimitedListToStringArray(schedules, ";")) {
+            String[] tokens = StringUtils.tokenizeToStringArray(schedule, " \t");
+            if (tokens.length == 0) {
+                continue;
+            }
+            Assert.isTrue(tokens.length >= 7, "Schedule must be: <job> <6 fields of a cron expression> [arguments]: "
+                + schedule);
+            List<String> arguments = new ArrayList<>();
+            arguments.add(tokens[0]);
+            arguments.addAll(Arrays.asList(tokens).subList(7, tokens.length));
+            this.schedules.add(new Schedule(String.join(" ", Arrays.copyOfRange(tokens, 1, 7)), arguments));
+        }
+    }
+
+    public void start() {
+        if (schedules.isEmpty()) {
+            return;
+        }
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setThreadNamePrefix("daemon-scheduler-");
+        taskScheduler.initialize();
+        for (Schedule schedule : schedules) {
+            taskScheduler.schedule(() -> fire(schedule), new CronTrigger(schedule.cron));
+            LOGGER.info("  [DAEMON ] scheduled {} at {}", schedule.arguments, schedule.cron);
+        }
+    }
+
+    public void close() {
+        if (taskScheduler != null) {
+            taskScheduler.shutdown();
+        }
+    }
+
+    public List<String> getStatus() {
+        List<String> status = new ArrayList<>();
+        for (Schedule schedule : schedules) {
+            JobExecution last = schedule.lastExecution;
+            status.add(String.format("schedule %s at %s: last %s, %d skipped", schedule.arguments, schedule.cron,
+                                     last == null ? "none" : JobCommands.describe(last) + " " + last.getStatus(),
+                                     schedule.skipped));
+        }
+        return status;
+    }
+
+    // one thread: the schedules fire one after the other, a launch only queues the execution
+    private void fire(Schedule schedule) {
+        JobExecution last = schedule.lastExecution;
+        if (last != null && last.getEndTime() == null) {
+            schedule.skipped++;
+            LOGGER.info("  [DAEMON ] {} skipped: {} not ended yet ({})", schedule.arguments,
+                        JobCommands.describe(last), last.getStatus());
+            return;
+        }
+        try {
+            schedule.lastExecution = commands.launch(schedule.arguments);
+        } catch (Exception e) {
+            LOGGER.warn("  [DAEMON ] {} not launched: {}", schedule.arguments, e.toString());
+        }
+    }
+
+    private static class Schedule {
+        private final String cron;
+        private final List<String> arguments;
+        private volatile JobExecution lastExecution;
+        private volatile int skipped;
+
+        private Schedule(String cron, List<String> arguments) {
+            this.cron = cron;
+            this.arguments = arguments;
+        }
+    }
+}
@@ -27,7 +27,10 @@ import javax.sql.DataSource;
 import javax.transaction.TransactionManager;
 import javax.transaction.UserTransaction;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -38,6 +41,9 @@ import org.springframework.context.annotation.PropertySource;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import xyz.codeityourself.springshowcases.batch.support.LatencyInjectingDataSource;
 
 /**
  * @author Bao Ho (hotribao@gmail.com)
@@ -55,9 +61,43 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 public class JpaBatchConfiguration {
 
     @Bean
-    public JpaSpringBatchConfigurer batchConfigurer(DataSource dataSource,
-                                                    PlatformTransactionManager transactionManager) {
-        return new JpaSpringBatchConfigurer(dataSource, transactionManager);
+    public JpaSpringBatchConfigurer batchConfigurer(
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        @Value("${showcase.job-repository.write-behind-millis:0}") long writeBehindMillis) {
+        JpaSpringBatchConfigurer configurer = new JpaSpringBatchConfigurer(dataSource, transactionManager);
+        configurer.setWriteBehindMillis(writeBehindMillis);
+        return configurer;
+    }
+
+    // spring-boot 1.5 has no auto-configuration for micrometer. Meters are kept in memory, to be read or logged by
+    // the application.
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    // the data source of the application goes through a LatencyInjectingDataSource, without delay unless a job sets
+    // one (see ChunkBaseBatchConfiguration#latencyListener). Static: bean post processors are created before the
+    // other beans.
+    @Bean
+    public static BeanPostProcessor latencyInjectingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                // the one of spring-boot, see DataSourceAutoConfiguration
+                if ("dataSource".equals(beanName) && bean instanceof DataSource
+                    && !(bean instanceof LatencyInjectingDataSource)) {
+                    return new LatencyInjectingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
     }
 
     // this is to have spring-batch use the same transaction manager with application code.
@@ -24,6 +24,7 @@
 package xyz.codeityourself.springshowcases.batch.jpa;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
 import org.springframework.batch.core.configuration.BatchConfigurationException;
 import org.springframework.batch.core.configuration.annotation.BatchConfigurer;
@@ -31,10 +32,13 @@ import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.batch.core.explore.support.JobExplorerFactoryBean;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.support.SimpleJobLauncher;
+import org.springframework.batch.core.repository.ExecutionContextSerializer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
 import org.springframework.batch.core.repository.support.MapJobRepositoryFactoryBean;
 import org.springframework.transaction.PlatformTransactionManager;
+import xyz.codeityourself.springshowcases.batch.support.BinaryExecutionContextSerializer;
+import xyz.codeityourself.springshowcases.batch.support.WriteBehindJobRepository;
 
 /**
  * Copy of {@link org.springframework.batch.core.configuration.annotation.DefaultBatchConfigurer} to have
@@ -53,6 +57,13 @@ public class JpaSpringBatchConfigurer implements BatchConfigurer {
     // see https://github.com/spring-projects/spring-batch/blob/master/spring-batch-docs/asciidoc/job.adoc#javaConfig
     private PlatformTransactionManager transactionManager;
 
+    // > 0: the state of the running steps is written behind, every writeBehindMillis (see WriteBehindJobRepository)
+    private long writeBehindMillis = 0;
+
+    // the execution contexts are written in a compact binary format, the former XStream/JSON one is still read
+    // (see BinaryExecutionContextSerializer). Both the repository and the explorer must read them the same way.
+    private final ExecutionContextSerializer serializer = new BinaryExecutionContextSerializer();
+
     private JobRepository jobRepository;
     private JobLauncher jobLauncher;
     private JobExplorer jobExplorer;
@@ -72,13 +83,22 @@ public class JpaSpringBatchConfigurer implements BatchConfigurer {
         this.transactionManager = transactionManager;
     }
 
+    public void setWriteBehindMillis(long writeBehindMillis) {
+        this.writeBehindMillis = writeBehindMillis;
+    }
+
     @PostConstruct
     public void initialize() {
         try {
             this.jobRepository = createPersistentJobRepository();
+            if (writeBehindMillis > 0) {
+                this.jobRepository = new WriteBehindJobRepository(jobRepository, transactionManager,
+                                                                  writeBehindMillis);
+            }
 
             JobExplorerFactoryBean jobExplorerFactoryBean = new JobExplorerFactoryBean();
             jobExplorerFactoryBean.setDataSource(this.dataSource);
+            jobExplorerFactoryBean.setSerializer(serializer);
             jobExplorerFactoryBean.afterPropertiesSet();
             this.jobExplorer = jobExplorerFactoryBean.getObject();
             this.jobLauncher = createJobLauncher();
@@ -87,10 +107,18 @@ public class JpaSpringBatchConfigurer implements BatchConfigurer {
         }
     }
 
+    @PreDestroy
+    public void close() {
+        if (jobRepository instanceof WriteBehindJobRepository) {
+            ((WriteBehindJobRepository) jobRepository).close();
+        }
+    }
+
     private JobRepository createPersistentJobRepository() throws Exception {
         JobRepositoryFactoryBean factory = new JobRepositoryFactoryBean();
         factory.setDataSource(dataSource);
         factory.setTransactionManager(transactionManager);
+        factory.setSerializer(serializer);
         factory.afterPropertiesSet();
         return factory.getObject();
     }
@@ -117,7 +145,7 @@ public class JpaSpringBatchConfigurer implements BatchConfigurer {
 
         // by default, SyncTaskExecutor is used, which runs job one by one
         // To run jobs async, use ThreadPoolTaskExecutor. However, when triggering batch job via commandline runner
-        // this may not be suitable
+        // this may not be suitable: a long-lived process launches its jobs with the ConcurrentJobLauncher
         // simpleJobLauncher.setTaskExecutor
 
         launcher.afterPropertiesSet();
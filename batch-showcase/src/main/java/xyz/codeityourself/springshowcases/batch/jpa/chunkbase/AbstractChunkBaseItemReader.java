@@ -35,6 +35,9 @@ import org.springframework.batch.core.annotation.OnProcessError;
 import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.item.database.AbstractPagingItemReader;
 import org.springframework.util.Assert;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector;
+import xyz.codeityourself.springshowcases.batch.support.ItemTrace;
+import xyz.codeityourself.springshowcases.batch.support.jfr.PageFetchEvent;
 
 /**
  * @param <I> type of the read item
@@ -46,17 +49,33 @@ public abstract class AbstractChunkBaseItemReader<I> extends AbstractPagingItemR
 
     private int chunkRemainingItemCount = 0;
 
+    private ItemTrace itemTrace = ItemTrace.LOG;
+
+    private FaultInjector faultInjector = FaultInjector.NONE;
+
     public AbstractChunkBaseItemReader() {
         // here we want to start-over when rerun the job instead of starting from the last-read item
         setSaveState(false);
     }
 
+    public void setItemTrace(ItemTrace itemTrace) {
+        this.itemTrace = itemTrace;
+    }
+
+    public void setFaultInjector(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
+    protected FaultInjector getFaultInjector() {
+        return faultInjector;
+    }
+
     @Override
     public I read() throws Exception {
         initChunkIfNeeded();
 
         I item = super.read();
-        LOGGER.info("  [READ   ] item: {}", item);
+        itemTrace.trace(LOGGER, ItemTrace.Event.READ, item);
         return item;
     }
 
@@ -119,7 +138,7 @@ public abstract class AbstractChunkBaseItemReader<I> extends AbstractPagingItemR
             results.clear();
         }
 
-        results.addAll(readItemsOfOnePage(getPageSize()));
+        results.addAll(PageFetchEvent.record(getClass(), getPageSize(), () -> readItemsOfOnePage(getPageSize())));
     }
 
     protected abstract List<I> readItemsOfOnePage(int pageSize);
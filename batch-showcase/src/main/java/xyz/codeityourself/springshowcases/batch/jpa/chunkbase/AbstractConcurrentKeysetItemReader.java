@@ -0,0 +1,208 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
+
+import static java.lang.String.format;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.annotation.BeforeChunk;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.util.Assert;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector;
+import xyz.codeityourself.springshowcases.batch.support.ItemTrace;
+import xyz.codeityourself.springshowcases.batch.support.jfr.PageFetchEvent;
+
+/**
+ * <p>
+ * Thread-safe counterpart of {@link AbstractKeysetItemReader}, for a multi-threaded step (step with a
+ * <code>taskExecutor</code>): one reader instance, several chunks read and written at the same time, each in its
+ * own thread and transaction.
+ * </p>
+ *
+ * <p>
+ * The only shared state is the position in the key space: a thread claims the key range of its next page under a
+ * lock (one index only query for the key closing the range) and moves the last key past it, then reads the items of
+ * the range outside of the lock, in its own transaction/entity manager. Everything about the chunk (the read-ahead
+ * items, the number of items read) is kept per thread. A page is never bigger than what the chunk of the
+ * thread still needs, so that no item read by a thread is left over at the end of its chunk: the
+ * per-chunk empty entity manager check of {@link AbstractReadAheadItemReader} is done at the start of every chunk of
+ * every thread.
+ * </p>
+ *
+ * <p>
+ * The order in which the items are processed is not kept, nothing is saved for a restart: the reader is no
+ * {@link org.springframework.batch.item.ItemStream}.
+ * </p>
+ *
+ * @param <I> type of the read item
+ * @param <K> type of the sort key of the item
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public abstract class AbstractConcurrentKeysetItemReader<I, K extends Comparable<? super K>>
+    implements ItemReader<I> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractConcurrentKeysetItemReader.class);
+
+    private final ThreadLocal<ChunkState<I>> chunkStates = ThreadLocal.withInitial(ChunkState::new);
+
+    // guarded by this
+    private K lastKey;
+    private boolean exhausted;
+
+    private int pageSize = 500;
+
+    private ItemTrace itemTrace = ItemTrace.LOG;
+
+    private FaultInjector faultInjector = FaultInjector.NONE;
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public void setItemTrace(ItemTrace itemTrace) {
+        this.itemTrace = itemTrace;
+    }
+
+    public void setFaultInjector(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
+    protected FaultInjector getFaultInjector() {
+        return faultInjector;
+    }
+
+    @Override
+    public I read() {
+        ChunkState<I> state = chunkStates.get();
+        if (state.readAheadItems.isEmpty()) {
+            int fetchSize = Math.max(1, Math.min(pageSize, getChunkSize() - state.readItemCount));
+            state.readAheadItems.addAll(readPage(fetchSize));
+            if (state.readAheadItems.isEmpty()) {
+                return null;
+            }
+        }
+
+        state.readItemCount++;
+        I item = state.readAheadItems.poll();
+        itemTrace.trace(LOGGER, ItemTrace.Event.READ, item);
+        return item;
+    }
+
+    /**
+     * Called at every chunk (new or retried) of every thread, in its transaction. A retried chunk is replayed by
+     * spring-batch from the items it already holds, so nothing of the thread is pending anyway.
+     */
+    @BeforeChunk
+    public final void onChunkStart(ChunkContext context) {
+        ChunkState<I> state = chunkStates.get();
+        Assert.state(state.readAheadItems.isEmpty(),
+                     format("Expect no item left from the previous chunk. But found %d", state.readAheadItems.size()));
+        state.readItemCount = 0;
+
+        LOGGER.info("  Start new chunk. Size: {}", getChunkSize());
+        Session session = getEntityManager().unwrap(Session.class);
+        Assert.isTrue(session.getStatistics().getEntityCount() == 0,
+                      format("Expect empty persistent context at the chunk start. But found %d entities",
+                             session.getStatistics().getEntityCount()));
+        Assert.isTrue(session.getStatistics().getCollectionCount() == 0,
+                      format("Expect empty persistent context at the chunk start. But found %d collection",
+                             session.getStatistics().getCollectionCount()));
+    }
+
+    private List<I> readPage(int size) {
+        KeyRange<K> range = claimRange(size);
+        if (range == null) {
+            return Collections.emptyList();
+        }
+        return PageFetchEvent.record(getClass(), size, () -> readItemsBetween(range.keyAfter, range.keyUpTo, size));
+    }
+
+    private synchronized KeyRange<K> claimRange(int size) {
+        if (exhausted) {
+            return null;
+        }
+
+        KeyRange<K> range = new KeyRange<>(lastKey, readKeyAfter(lastKey, size));
+        if (range.keyUpTo == null) {
+            // less than a page left: the last range is open
+            exhausted = true;
+            return range;
+        }
+
+        Assert.state(lastKey == null || range.keyUpTo.compareTo(lastKey) > 0,
+                     format("Keys must be strictly ascending. Got %s after %s", range.keyUpTo, lastKey));
+        lastKey = range.keyUpTo;
+        return range;
+    }
+
+    protected abstract int getChunkSize();
+
+    protected abstract EntityManager getEntityManager();
+
+    protected abstract K getKey(I item);
+
+    /**
+     * Called by one thread at a time, keep it on the index.
+     *
+     * @param lastKey key of the last claimed item, null to start from the first item
+     * @param size number of items in the range
+     * @return key of the <code>size</code>-th item after <code>lastKey</code>, null when less items are left
+     */
+    protected abstract K readKeyAfter(K lastKey, int size);
+
+    /**
+     * Called by several threads at the same time, each with its own range.
+     *
+     * @param keyAfter excluded lower bound, null to start from the first item
+     * @param keyUpTo included upper bound, null up to the last item
+     * @param pageSize maximum number of items to read
+     * @return the items of the range in ascending key order
+     */
+    protected abstract List<I> readItemsBetween(K keyAfter, K keyUpTo, int pageSize);
+
+    private static class KeyRange<K> {
+        private final K keyAfter;
+        private final K keyUpTo;
+
+        private KeyRange(K keyAfter, K keyUpTo) {
+            this.keyAfter = keyAfter;
+            this.keyUpTo = keyUpTo;
+        }
+    }
+
+    private static class ChunkState<I> {
+        private final Deque<I> readAheadItems = new ArrayDeque<>();
+
+        // items returned in the current chunk of the thread
+        private int readItemCount;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
+
+import static java.lang.String.format;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import org.springframework.util.Assert;
+
+/**
+ * <p>
+ * An {@link AbstractReadAheadItemReader} which pages by key (a.k.a. seek method / keyset pagination) instead of by
+ * offset. Every page is queried as
+ * <code>WHERE key &gt; :lastKey ORDER BY key LIMIT :pageSize</code>
+ * where <code>lastKey</code> is the key of the last item of the previous page.
+ * </p>
+ *
+ * <p>
+ * Compared to <code>OFFSET/LIMIT</code> paging, the database seeks directly to the page start in the index instead
+ * of walking over (and throwing away) all the rows of the previous pages, and there is no <code>COUNT(*)</code> to
+ * run since nothing needs the total. So the cost of a page stays flat however deep the job goes.
+ * </p>
+ *
+ * <p>
+ * The key must be unique and sorted by the query the same way as its {@link Comparable#compareTo(Object)}. It does
+ * not need to be an integer: a string, a number or a date (e.g. a unique timestamp) does as well.
+ * </p>
+ *
+ * <p>
+ * The reader is restartable: a restarted step seeks after the key of the last committed item, so the key is saved
+ * in the step execution context. The context serializer of the job repository,
+ * {@link xyz.codeityourself.springshowcases.batch.support.BinaryExecutionContextSerializer}, only stores strings,
+ * numbers, dates and booleans (no java serialization): the update of the job repository fails with any other key
+ * type. So a composite sort key, e.g. <code>(name, id)</code> with a query like
+ * <code>WHERE name &gt; :name OR (name = :name AND id &gt; :id) ORDER BY name, id</code>, is not supported.
+ * </p>
+ *
+ * @param <I> type of the read item
+ * @param <K> type of the sort key of the item
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public abstract class AbstractKeysetItemReader<I, K extends Comparable<? super K>>
+    extends AbstractReadAheadItemReader<I> {
+
+    // key of the last item of the last read page. null: nothing read yet
+    private K lastKey;
+
+    @Override
+    protected final List<I> readItemsOfOnePage(int pageSize) {
+        return moveAfter(readItemsAfter(lastKey, pageSize));
+    }
+
+    @Override
+    protected final Supplier<List<I>> getDetachedPageReader(int pageSize) {
+        BiFunction<K, Integer, List<I>> detachedReader = getDetachedReader();
+        if (detachedReader == null) {
+            return null;
+        }
+        return () -> moveAfter(detachedReader.apply(lastKey, pageSize));
+    }
+
+    private List<I> moveAfter(List<I> items) {
+        if (!items.isEmpty()) {
+            K pageLastKey = getKey(items.get(items.size() - 1));
+
+            // a query not sorted by the key would silently skip or loop over items
+            Assert.state(lastKey == null || pageLastKey.compareTo(lastKey) > 0,
+                         format("Keys must be strictly ascending. Got %s after %s", pageLastKey, lastKey));
+            lastKey = pageLastKey;
+        }
+        return items;
+    }
+
+    protected abstract K getKey(I item);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected final RestartKey<I> getRestartKey() {
+        return new RestartKey<>(this::getKey, restartKey -> lastKey = (K) restartKey);
+    }
+
+    /**
+     * @param lastKey  the key of the last item read so far, <code>null</code> for the first page
+     * @param pageSize maximum number of items to return
+     * @return the items having key greater than <code>lastKey</code>, sorted ascending by key
+     */
+    protected abstract List<I> readItemsAfter(K lastKey, int pageSize);
+
+    /**
+     * @return background version of {@link #readItemsAfter(Object, int)}, taking the same arguments, see
+     * {@link AbstractReadAheadItemReader#getDetachedPageReader(int)}. null (default): the pages cannot be read in
+     * background.
+     */
+    protected BiFunction<K, Integer, List<I>> getDetachedReader() {
+        return null;
+    }
+}
@@ -17,6 +17,9 @@ package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
 import static java.lang.String.format;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import javax.persistence.EntityManager;
 import org.hibernate.Session;
 import org.slf4j.Logger;
@@ -24,8 +27,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.annotation.AfterChunk;
 import org.springframework.batch.core.annotation.OnProcessError;
 import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamSupport;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector;
+import xyz.codeityourself.springshowcases.batch.support.ItemTrace;
+import xyz.codeityourself.springshowcases.batch.support.jfr.PageFetchEvent;
 
 /**
  * <p>
@@ -40,6 +49,19 @@ import org.springframework.util.Assert;
  * Then the reader just queries and return the first page.
  * </P>
  *
+ * <p>
+ * Optionally (see {@link #setPrefetchPageCount(int)}), the pages can be fetched ahead by a background thread so that
+ * the chunk thread does not wait for the database at every page boundary. As the background thread must not use
+ * the entity manager of the chunk, such pages are read by the supplier of {@link #getDetachedPageReader(int)}, which
+ * the concrete reader has to implement with a connection/session of its own, returning plain (not managed) objects.
+ * </P>
+ *
+ * <p>
+ * A reader implementing {@link #getRestartKey()} is restartable: the key of the last item read is saved in the step
+ * execution context at every commit (see {@link #update(ExecutionContext)}), and a restarted step seeks straight
+ * after it, instead of reading again what was already committed.
+ * </P>
+ *
  * @param <I> type of the read item. When there is error on the processor, the transaction will be rolled backed.
  *            A new started will be started with an empty entity manger. Then the processor will be called again
  *            will items that are not error (e.g. the reader will not be called). Thus, unless the reader ensure
@@ -50,10 +72,13 @@ import org.springframework.util.Assert;
  * @author tbh
  * @since 07.05.2019
  */
-public abstract class AbstractReadAheadItemReader<I> implements ItemReader<I> {
+public abstract class AbstractReadAheadItemReader<I> extends ItemStreamSupport implements ItemReader<I> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractReadAheadItemReader.class);
 
+    // in the step execution context: the key of the last item of the last committed chunk
+    private static final String LAST_KEY = "lastKey";
+
     private int chunkRemainingItemCount;
 
     private int lastReadIndex = -1;
@@ -61,23 +86,68 @@ public abstract class AbstractReadAheadItemReader<I> implements ItemReader<I> {
 
     private int pageSize = 500;
 
+    private ItemTrace itemTrace = ItemTrace.LOG;
+
+    private FaultInjector faultInjector = FaultInjector.NONE;
+
+    // number of pages fetched ahead in background. 0: fetch page by page in the chunk thread
+    private int prefetchPageCount = 0;
+    private PagePrefetcher<I> prefetcher;
+
+    // false: the step always starts over from the first item
+    private boolean saveState = true;
+    // null: not restartable, or not opened
+    private RestartKey<I> restartKey;
+    // key of the last item read. null: nothing read, or not restartable
+    private Object lastReadKey;
+
+    public AbstractReadAheadItemReader() {
+        // prefix of the keys in the step execution context
+        setName(ClassUtils.getShortName(getClass()));
+    }
+
     public void setPageSize(int pageSize) {
         this.pageSize = pageSize;
     }
 
+    public void setItemTrace(ItemTrace itemTrace) {
+        this.itemTrace = itemTrace;
+    }
+
+    public void setFaultInjector(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
+    protected FaultInjector getFaultInjector() {
+        return faultInjector;
+    }
+
+    public void setSaveState(boolean saveState) {
+        this.saveState = saveState;
+    }
+
+    public void setPrefetchPageCount(int prefetchPageCount) {
+        Assert.isTrue(prefetchPageCount == 0 || getDetachedPageReader(pageSize) != null,
+                      format("%s cannot read pages in background", getClass().getSimpleName()));
+        this.prefetchPageCount = prefetchPageCount;
+    }
+
     @Override
     public I read() {
         initChunkIfNeeded();
 
         if (readAheadItems.isEmpty() || (lastReadIndex == readAheadItems.size() - 1)) {
-            readAheadItems = readItemsOfOnePage(pageSize);
+            readAheadItems = readNextPage();
             lastReadIndex = -1;
         }
 
         lastReadIndex++;
         if (lastReadIndex < readAheadItems.size()) {
             I item = readAheadItems.get(lastReadIndex);
-            LOGGER.info("  [READ   ] item: {}", item);
+            itemTrace.trace(LOGGER, ItemTrace.Event.READ, item);
+            if (saveState && restartKey != null) {
+                lastReadKey = restartKey.keyOf.apply(item);
+            }
             return item;
         }
 
@@ -123,7 +193,8 @@ public abstract class AbstractReadAheadItemReader<I> implements ItemReader<I> {
 
     @OnProcessError
     public final void onItemProcessError(I item, Exception e) {
-        // spring-batch will try the chunk without this erroneous item.
+        // spring-batch will try the chunk without this erroneous item. Either in a new transaction, after a rollback,
+        // or in the same one when the item was processed in a savepoint. No more item to read for it anyway.
         --chunkRemainingItemCount;
     }
 
@@ -135,6 +206,106 @@ public abstract class AbstractReadAheadItemReader<I> implements ItemReader<I> {
         chunkRemainingItemCount = 0;
     }
 
+    private List<I> readNextPage() {
+        if (prefetchPageCount == 0) {
+            return PageFetchEvent.record(getClass(), pageSize, () -> readItemsOfOnePage(pageSize));
+        }
+
+        if (prefetcher == null) {
+            Supplier<List<I>> detachedPageReader = getDetachedPageReader(pageSize);
+            prefetcher = new PagePrefetcher<>(
+                () -> PageFetchEvent.record(getClass(), pageSize, detachedPageReader),
+                prefetchPageCount, "prefetch-" + getClass().getSimpleName());
+            prefetcher.start();
+        }
+        try {
+            return prefetcher.take();
+        } catch (RuntimeException | Error e) {
+            // the prefetcher is dead. A new one will retry the failed page at the next read.
+            prefetcher = null;
+            throw e;
+        }
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        restartKey = getRestartKey();
+        String key = getExecutionContextKey(LAST_KEY);
+        if (saveState && executionContext.containsKey(key)) {
+            Assert.state(restartKey != null, format("%s is not restartable, but its step execution context has a %s",
+                                                    getClass().getSimpleName(), key));
+            lastReadKey = executionContext.get(key);
+            LOGGER.info("  [RESTART] after key: {}", lastReadKey);
+            restartKey.seekAfter.accept(lastReadKey);
+        }
+    }
+
+    /**
+     * Called before the commit of every chunk, when all the items of the chunk have been read.
+     */
+    @Override
+    public void update(ExecutionContext executionContext) {
+        if (saveState && lastReadKey != null) {
+            executionContext.put(getExecutionContextKey(LAST_KEY), lastReadKey);
+        }
+    }
+
+    @Override
+    public void close() {
+        stopPrefetching();
+    }
+
+    /**
+     * Stops the background fetching of pages, if any, and waits for the page being read.
+     *
+     * @return false when the background thread is still reading a page after the timeout
+     */
+    protected boolean stopPrefetching() {
+        boolean stopped = prefetcher == null || prefetcher.stop();
+        prefetcher = null;
+        return stopped;
+    }
+
     protected abstract List<I> readItemsOfOnePage(int pageSize);
 
+    /**
+     * Called on {@link #open(ExecutionContext)}.
+     *
+     * @return how the reader restarts after the last committed item. null (default): the reader is not restartable
+     * and always starts over.
+     */
+    protected RestartKey<I> getRestartKey() {
+        return null;
+    }
+
+    /**
+     * @return reads the next page, as {@link #readItemsOfOnePage(int)}, but is called in a background thread, without
+     * transaction. Thus, it must not use {@link #getEntityManager()}, and returned items must not be attached to any
+     * persistence context. null (default): the pages cannot be read in background.
+     */
+    protected Supplier<List<I>> getDetachedPageReader(int pageSize) {
+        return null;
+    }
+
+    /**
+     * The key of an item, stored in the step execution context, and how to seek after it.
+     *
+     * @param <I> type of the read item
+     */
+    protected static final class RestartKey<I> {
+        private final Function<I, Object> keyOf;
+        private final Consumer<Object> seekAfter;
+
+        /**
+         * @param keyOf     the key of the item, serializable in the step execution context
+         * @param seekAfter called on {@link #open(ExecutionContext)} of a restarted step, before any read: the next
+         *                  page must start after the item of the given key
+         */
+        public RestartKey(Function<I, Object> keyOf, Consumer<Object> seekAfter) {
+            Assert.notNull(keyOf, "keyOf is required");
+            Assert.notNull(seekAfter, "seekAfter is required");
+            this.keyOf = keyOf;
+            this.seekAfter = seekAfter;
+        }
+    }
 }
@@ -23,7 +23,14 @@
  */
 package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
 
+import static java.lang.String.format;
+import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.ChunkListener;
@@ -31,21 +38,57 @@ import org.springframework.batch.core.ItemProcessListener;
 import org.springframework.batch.core.ItemReadListener;
 import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.JobParametersValidator;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.listener.JobExecutionListenerSupport;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
-import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.partition.support.SimplePartitioner;
+import org.springframework.batch.core.step.builder.FaultTolerantStepBuilder;
+import org.springframework.batch.core.step.builder.PartitionStepBuilder;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.item.DefaultItemFailureHandler;
 import org.springframework.batch.core.step.skip.AlwaysSkipItemSkipPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.retry.policy.NeverRetryPolicy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+import io.micrometer.core.instrument.MeterRegistry;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseProperties.PartitionerType;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseProperties.ReaderType;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseProperties.VerifyType;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseProperties.WriterType;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseProperties.WriteScanType;
 import xyz.codeityourself.springshowcases.batch.jpa.entity.Customer;
 import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
 import xyz.codeityourself.springshowcases.batch.jpa.support.ChunkBaseBatchSimulation;
+import xyz.codeityourself.springshowcases.batch.jpa.support.HibernateStatisticsChunkListener;
+import xyz.codeityourself.springshowcases.batch.jpa.support.SavepointItemProcessor;
+import xyz.codeityourself.springshowcases.batch.jpa.support.TransactionalStatelessSessionProvider;
 import xyz.codeityourself.springshowcases.batch.support.BatchShowCaseSimulationErrorException;
+import xyz.codeityourself.springshowcases.batch.support.BisectingFaultTolerantStepBuilder;
+import xyz.codeityourself.springshowcases.batch.support.ChunkMetricsListener;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector.Phase;
+import xyz.codeityourself.springshowcases.batch.support.ItemRolledBackToSavepointException;
+import xyz.codeityourself.springshowcases.batch.support.ItemTrace;
+import xyz.codeityourself.springshowcases.batch.support.JdbcSavepointTemplate;
+import xyz.codeityourself.springshowcases.batch.support.LatencyInjectingDataSource;
+import xyz.codeityourself.springshowcases.batch.support.StepContextTaskDecorator;
 import xyz.codeityourself.springshowcases.batch.support.TimestampJobParametersIncrementer;
+import xyz.codeityourself.springshowcases.batch.support.jfr.BatchEventListener;
 
 /**
  * This job demonstrate:
@@ -57,77 +100,198 @@ import xyz.codeityourself.springshowcases.batch.support.TimestampJobParametersIn
  * @since 03.05.2019
  */
 @Configuration
+@EnableConfigurationProperties(ChunkBaseProperties.class)
 public class ChunkBaseBatchConfiguration {
     private static final Logger LOGGER = LoggerFactory.getLogger(ChunkBaseBatchConfiguration.class);
 
     // use this name to trigger the batch job
     public static final String JOB_NAME = "jobChunkBaseShowCase";
 
-    static final String MAIN_STEP_NAME = "copyCustomer";
+    public static final String MAIN_STEP_NAME = "copyCustomer";
+
+    // name of the partition steps when copyCustomer is partitioned
+    static final String WORKER_STEP_NAME = "copyCustomerPartition";
+
+    // job parameters of the simulated failures, see faultInjector(..). Ids: e.g. "5,7-9", "none". Rates: 0 to 1.
+    public static final String FAULT_READ_IDS = "faultReadIds";
+    public static final String FAULT_PROCESS_IDS = "faultProcessIds";
+    public static final String FAULT_WRITE_IDS = "faultWriteIds";
+    public static final String FAULT_COMMIT_IDS = "faultCommitIds";
+    public static final String FAULT_READ_RATE = "faultReadRate";
+    public static final String FAULT_PROCESS_RATE = "faultProcessRate";
+    public static final String FAULT_WRITE_RATE = "faultWriteRate";
+    public static final String FAULT_COMMIT_RATE = "faultCommitRate";
+    public static final String FAULT_SEED = "faultSeed";
+    // job parameter: delay added to each round trip to the database, in microseconds
+    public static final String LATENCY_MICROS = "latencyMicros";
+
+    // job parameters of the clean up of the copied data, see clean(..)
+    public static final String CLEAN_STRATEGY = "cleanStrategy";
+    public static final String CLEAN_BATCH_ROWS = "cleanBatchRows";
+
+    @Autowired
+    private ChunkBaseProperties properties;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Bean(JOB_NAME)
     public Job jobChunkBaseShowCase(JobBuilderFactory jobFactory,
                                     StepBuilderFactory stepFactory) {
+        boolean partitioned = properties.getPartitions() > 1;
+        boolean multiThreaded = properties.getStepThreads() > 1;
+
+        String chunkStepName = partitioned ? WORKER_STEP_NAME : MAIN_STEP_NAME;
+        SimpleStepBuilder<CustomerTmp, Customer> chunkStep = stepFactory.get(chunkStepName)
+
+            //  - allowStartIfComplete:
+            //      + At step level
+            //      + Scenario: a job, with restartable=true, has 3 steps. In one execution, step 3 failed.
+            //          When the job restarts:
+            //          * If all steps have allowStartIfComplete=false.
+            //              Step 3 will be rerun.
+            //              Step 1 and step 2 will be skipped as they were completed.
+            //          * If step 1 has allowStartIfComplete=true, step 2 and step 3 have allowStartIfComplete=false
+            //              Step 1 will be rerun
+            //              Step 2 will be skipped
+            //              Step 3 will be rerun
+            .allowStartIfComplete(true)
+
+            // reads ID of CustomerTmp
+            // writes (copies) Customer
+            .<CustomerTmp, Customer>chunk(ChunkBaseBatchSimulation.CHUNK_SIZE);
+
+        SimpleStepBuilder<CustomerTmp, Customer> copyStepBuilder = faultTolerant(chunkStep)
+
+            // define skip/retry policy
+            .skipPolicy(new AlwaysSkipItemSkipPolicy()) // skip the item for whatever exception
+            .retryPolicy(new NeverRetryPolicy())
+            // the item failed in a savepoint, the chunk can go on without it (see savepointProcessor)
+            .noRollback(ItemRolledBackToSavepointException.class)
+
+            .listener((SkipListener<? super CustomerTmp, ? super Customer>) chunkMetricsListener())
+            .listener((ChunkListener) chunkMetricsListener())
+            .listener((ItemReadListener<? super CustomerTmp>) chunkMetricsListener())
+            .listener((ItemProcessListener<? super CustomerTmp, ? super Customer>) chunkMetricsListener())
+            .listener((ItemWriteListener<? super Customer>) chunkMetricsListener())
+            .listener((StepExecutionListener) batchEventListener())
+            .listener((ChunkListener) batchEventListener())
+            .listener((ItemProcessListener<? super CustomerTmp, ? super Customer>) batchEventListener())
+            .listener((ItemWriteListener<? super Customer>) batchEventListener())
+            .listener(hibernateStatisticsListener())
+            // dumps the trace of the rolled back chunks
+            .listener(itemTrace())
+            .listener((ItemReadListener<? super CustomerTmp>) itemFailureHandler())
+            .listener((ItemProcessListener<? super CustomerTmp, ? super Customer>) itemFailureHandler())
+            .listener((ItemWriteListener<? super Customer>) itemFailureHandler())
+
+            .reader(multiThreaded ? concurrentReader() : reader(null, null, null))
+            .processor(properties.isProcessInSavepoint() ? savepointProcessor() : processor())
+            .writer(writer());
+
+        // the hibernate statistics are shared by the chunks running at the same time
+        Assert.state(properties.getStatementsPerItemBudget() <= 0 || !(partitioned || multiThreaded),
+                     "statements-per-item-budget cannot be combined with partitions > 1 or step-threads > 1");
+
+        if (multiThreaded) {
+            Assert.state(!partitioned, "step-threads > 1 cannot be combined with partitions > 1");
+            // same reason as in partition(..): chunks of one item
+            Assert.state(properties.getWriter() != WriterType.JPA,
+                         "step-threads > 1 requires writer=jdbc or stateless");
+            // the item by item scan pairs the outputs with the inputs of the chunk: the output after a process
+            // skip is dropped, neither written nor counted. The threads mix the pages, so a chunk mixing process
+            // skips and write errors is the rule, not the exception. The bisection stays in the transaction.
+            Assert.state(properties.getWriteScan() == WriteScanType.BISECT,
+                         "step-threads > 1 requires write-scan=bisect");
+
+            // several chunks at the same time, each in its own thread and transaction
+            copyStepBuilder
+                .taskExecutor(stepTaskExecutor())
+                .throttleLimit(properties.getStepThreads());
+        }
+        Step copyStep = copyStepBuilder.build();
+
         return jobFactory.get(JOB_NAME)
 
             // allow re-run the job the same set of parameters
             // From CommandLineJobRunner, use parameter "-next"
             .incrementer(parametersIncrementer())
+            .validator(faultParametersValidator())
+            .listener((JobExecutionListener) batchEventListener())
+            // drops the chunk statistics of the job execution
+            .listener((JobExecutionListener) chunkMetricsListener())
+            .listener(latencyListener())
 
             .start(stepFactory.get("cleanUpCopiedCustomerData")
-                       .tasklet(clean())
+                       .tasklet(clean(null, null))
+                       .listener((StepExecutionListener) batchEventListener())
                        .build())
 
-            .next(
-                stepFactory.get(MAIN_STEP_NAME)
-
-                    //  - allowStartIfComplete:
-                    //      + At step level
-                    //      + Scenario: a job, with restartable=true, has 3 steps. In one execution, step 3 failed.
-                    //          When the job restarts:
-                    //          * If all steps have allowStartIfComplete=false.
-                    //              Step 3 will be rerun.
-                    //              Step 1 and step 2 will be skipped as they were completed.
-                    //          * If step 1 has allowStartIfComplete=true, step 2 and step 3 have allowStartIfComplete=false
-                    //              Step 1 will be rerun
-                    //              Step 2 will be skipped
-                    //              Step 3 will be rerun
-                    .allowStartIfComplete(true)
-
-                    // reads ID of CustomerTmp
-                    // writes (copies) Customer
-                    .<CustomerTmp, Customer>chunk(ChunkBaseBatchSimulation.CHUNK_SIZE)
-
-                    // define skip/retry policy
-                    .faultTolerant()
-                    .skipPolicy(new AlwaysSkipItemSkipPolicy()) // skip the item for whatever exception
-                    .retryPolicy(new NeverRetryPolicy())
-
-                    .listener(chunkListener())
-                    .listener((ItemReadListener<? super CustomerTmp>) itemFailureHandler())
-                    .listener((ItemProcessListener<? super CustomerTmp, ? super Customer>) itemFailureHandler())
-                    .listener((ItemWriteListener<? super Customer>) itemFailureHandler())
-
-                    .reader(reader())
-                    .processor(processor())
-                    .writer(writer())
-
-                    .build()
-                 )
+            .next(partitioned ? partition(stepFactory, copyStep) : copyStep)
 
             .next(stepFactory.get("sumarizeExecution")
                       .tasklet(summary())
+                      .listener((StepExecutionListener) batchEventListener())
                       .build())
 
             .next(stepFactory.get("verifyCopiedCustomerData")
                       .tasklet(verify())
+                      .listener((StepExecutionListener) batchEventListener())
                       .build())
 
             .build();
     }
 
+    // runs the worker step on id ranges of customer_tmp, in parallel: a fixed range per partition, or ranges claimed
+    // from a queue by the partitions until the table is exhausted. The step executions of the workers are rolled up
+    // into the one of the master step.
+    private Step partition(StepBuilderFactory stepFactory, Step workerStep) {
+        Assert.state(properties.getReader() == ReaderType.KEYSET, "partitions > 1 requires reader=keyset");
+        // With the JPA writer, the items are saved by the processor. A range may end with a one-item chunk failing
+        // on write: spring-batch then processes the item again and drops it without writing, which would commit
+        // the save of the processor.
+        Assert.state(properties.getWriter() != WriterType.JPA, "partitions > 1 requires writer=jdbc or stateless");
+        PartitionStepBuilder partitionStep = stepFactory.get(MAIN_STEP_NAME)
+            .allowStartIfComplete(true)
+            .partitioner(workerStep.getName(), isRangeQueued() ? new SimplePartitioner() : partitioner())
+            .step(workerStep)
+            .gridSize(properties.getPartitions())
+            .taskExecutor(partitionTaskExecutor())
+            .listener((StepExecutionListener) batchEventListener());
+        if (isRangeQueued()) {
+            // opens/closes the queue of the job execution
+            partitionStep.listener(idRangeQueue());
+        }
+        return partitionStep.build();
+    }
+
+    private boolean isRangeQueued() {
+        return properties.getPartitions() > 1 && properties.getPartitioner() == PartitionerType.QUEUE;
+    }
+
+    // write errors of a chunk are isolated by re-writing it item by item (default), or by bisection
+    private <I, O> FaultTolerantStepBuilder<I, O> faultTolerant(SimpleStepBuilder<I, O> stepBuilder) {
+        switch (properties.getWriteScan()) {
+            case BISECT:
+                // the JPA writer writes nothing, the items are saved by the processor
+                Assert.state(properties.getWriter() != WriterType.JPA,
+                             "write-scan=bisect requires writer=jdbc or stateless");
+                return new BisectingFaultTolerantStepBuilder<>(stepBuilder, new JdbcSavepointTemplate(dataSource));
+            case ITEM:
+            default:
+                return stepBuilder.faultTolerant();
+        }
+    }
+
+    // step scope, not job scope: the job scope is not active in the threads of the partitions
     @Bean
-    @JobScope
+    @StepScope
     DefaultItemFailureHandler itemFailureHandler() {
         return new DefaultItemFailureHandler() {
             @Override
@@ -149,7 +313,8 @@ public class ChunkBaseBatchConfiguration {
             }
 
             @Override
-            public void onProcessError(Object item, Exception e) {
+            public void onProcessError(Object item, Exception ex) {
+                Exception e = ex instanceof ItemRolledBackToSavepointException ? (Exception) ex.getCause() : ex;
                 if (e instanceof BatchShowCaseSimulationErrorException) {
                     LOGGER.error("  Error (simulation) encountered while processing: {}", item);
                 } else {
@@ -159,64 +324,289 @@ public class ChunkBaseBatchConfiguration {
         };
     }
 
+    // the failures of the job execution, the same for all the steps and threads. Job parameters missing: the
+    // failing ids of ChunkBaseBatchSimulation, no failure rate.
     @Bean
-    ChunkListener chunkListener() {
-        return new ChunkListener() {
-            @Override
-            public void beforeChunk(ChunkContext context) {
-                LOGGER.info(" ");
-                LOGGER.info(">>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>"
-                                + "Starting chunk (transaction started)");
-                LOGGER.info("beforeChunk: {}", context);
-            }
+    @StepScope
+    FaultInjector faultInjector(@Value("#{jobParameters}") Map<String, Object> jobParameters) {
+        return new FaultInjector(longParameter(jobParameters, FAULT_SEED))
+            .failIds(Phase.READ,
+                     stringParameter(jobParameters, FAULT_READ_IDS, ChunkBaseBatchSimulation.READ_ERROR_IDS))
+            .failIds(Phase.PROCESS,
+                     stringParameter(jobParameters, FAULT_PROCESS_IDS, ChunkBaseBatchSimulation.PROCESS_ERROR_IDS))
+            .failIds(Phase.WRITE,
+                     stringParameter(jobParameters, FAULT_WRITE_IDS, ChunkBaseBatchSimulation.WRITE_ERROR_IDS))
+            .failIds(Phase.COMMIT, stringParameter(jobParameters, FAULT_COMMIT_IDS, "none"))
+            .failRate(Phase.READ, doubleParameter(jobParameters, FAULT_READ_RATE))
+            .failRate(Phase.PROCESS, doubleParameter(jobParameters, FAULT_PROCESS_RATE))
+            .failRate(Phase.WRITE, doubleParameter(jobParameters, FAULT_WRITE_RATE))
+            .failRate(Phase.COMMIT, doubleParameter(jobParameters, FAULT_COMMIT_RATE));
+    }
+
+    // rejects the launch (before its job execution is created) of fault parameters which would only fail the
+    // creation of the faultInjector in the first step
+    @Bean
+    JobParametersValidator faultParametersValidator() {
+        return jobParameters -> {
+            Map<String, Object> values = new HashMap<>();
+            jobParameters.getParameters().forEach((key, parameter) -> values.put(key, parameter.getValue()));
+            FaultInjector probe = new FaultInjector(0);
+            validateParameter(FAULT_SEED, () -> longParameter(values, FAULT_SEED));
+            validateParameter(FAULT_READ_IDS,
+                              () -> probe.failIds(Phase.READ, stringParameter(values, FAULT_READ_IDS, "")));
+            validateParameter(FAULT_PROCESS_IDS,
+                              () -> probe.failIds(Phase.PROCESS, stringParameter(values, FAULT_PROCESS_IDS, "")));
+            validateParameter(FAULT_WRITE_IDS,
+                              () -> probe.failIds(Phase.WRITE, stringParameter(values, FAULT_WRITE_IDS, "")));
+            validateParameter(FAULT_COMMIT_IDS,
+                              () -> probe.failIds(Phase.COMMIT, stringParameter(values, FAULT_COMMIT_IDS, "")));
+            validateParameter(FAULT_READ_RATE,
+                              () -> probe.failRate(Phase.READ, doubleParameter(values, FAULT_READ_RATE)));
+            validateParameter(FAULT_PROCESS_RATE,
+                              () -> probe.failRate(Phase.PROCESS, doubleParameter(values, FAULT_PROCESS_RATE)));
+            validateParameter(FAULT_WRITE_RATE,
+                              () -> probe.failRate(Phase.WRITE, doubleParameter(values, FAULT_WRITE_RATE)));
+            validateParameter(FAULT_COMMIT_RATE,
+                              () -> probe.failRate(Phase.COMMIT, doubleParameter(values, FAULT_COMMIT_RATE)));
+        };
+    }
+
+    private static void validateParameter(String key, Runnable parse) throws JobParametersInvalidException {
+        try {
+            parse.run();
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException included
+            throw new JobParametersInvalidException(format("Invalid job parameter %s: %s", key, e.getMessage()));
+        }
+    }
 
+    // job parameters given on the command line are strings
+    private static String stringParameter(Map<String, Object> jobParameters, String key, String defaultValue) {
+        Object value = jobParameters.get(key);
+        return value == null ? defaultValue : value.toString();
+    }
+
+    private static long longParameter(Map<String, Object> jobParameters, String key) {
+        return Long.parseLong(stringParameter(jobParameters, key, "0"));
+    }
+
+    private static double doubleParameter(Map<String, Object> jobParameters, String key) {
+        return Double.parseDouble(stringParameter(jobParameters, key, "0"));
+    }
+
+    // sets the delay of the round trips to the database of the job execution (see
+    // JpaBatchConfiguration#latencyInjectingDataSource), and removes it afterwards. The other job executions
+    // running at the same time keep their own.
+    @Bean
+    JobExecutionListener latencyListener() {
+        return new JobExecutionListenerSupport() {
             @Override
-            public void afterChunk(ChunkContext context) {
-                LOGGER.info("afterChunk: {}", context);
-                LOGGER.info("*************************************Chunk OK (transaction committed)");
+            public void beforeJob(JobExecution jobExecution) {
+                String latency = jobExecution.getJobParameters().getString(LATENCY_MICROS);
+                long latencyMicros = latency == null ? 0 : Long.parseLong(latency);
+                latencyInjectingDataSource().setRoundTripMicros(jobExecution.getId(), latencyMicros);
+                LOGGER.info("Database round trip delay: {} us", latencyMicros);
             }
 
             @Override
-            public void afterChunkError(ChunkContext context) {
-                LOGGER.info("afterChunkError: {}", context);
-                LOGGER.info("xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxChunk FAILED (transaction rolled back)");
+            public void afterJob(JobExecution jobExecution) {
+                latencyInjectingDataSource().setRoundTripMicros(jobExecution.getId(), 0);
             }
         };
     }
 
+    private LatencyInjectingDataSource latencyInjectingDataSource() {
+        try {
+            return dataSource.unwrap(LatencyInjectingDataSource.class);
+        } catch (SQLException e) {
+            throw new IllegalStateException("the data source does not inject latency", e);
+        }
+    }
+
+    // one for all the steps and threads, see summary()
+    @Bean
+    ChunkMetricsListener chunkMetricsListener() {
+        return new ChunkMetricsListener(meterRegistry, properties.getMetricsLogInterval());
+    }
+
+    // one ring buffer for all the threads of the step
+    @Bean
+    ItemTrace itemTrace() {
+        return new ItemTrace(properties.getItemTrace(), properties.getItemTraceSize());
+    }
+
+    // JFR events, close to free when no recording is running
+    @Bean
+    BatchEventListener batchEventListener() {
+        return new BatchEventListener();
+    }
+
+    @Bean
+    HibernateStatisticsChunkListener hibernateStatisticsListener() {
+        return new HibernateStatisticsChunkListener(entityManagerFactory, meterRegistry,
+                                                    properties.getStatementsPerItemBudget(),
+                                                    properties.getStatementsOverBudget());
+    }
+
     @Bean
     TimestampJobParametersIncrementer parametersIncrementer() {
         return new TimestampJobParametersIncrementer();
     }
 
+    @Bean
+    TransactionalStatelessSessionProvider statelessSessionProvider(EntityManagerFactory entityManagerFactory) {
+        return new TransactionalStatelessSessionProvider(entityManagerFactory, dataSource);
+    }
+
+    @Bean
+    CustomerIdRangePartitioner partitioner() {
+        return new CustomerIdRangePartitioner();
+    }
+
+    @Bean
+    CustomerIdRangeQueue idRangeQueue() {
+        return new CustomerIdRangeQueue(properties.getQueueRangeChunks() * ChunkBaseBatchSimulation.CHUNK_SIZE,
+                                        WORKER_STEP_NAME);
+    }
+
+    @Bean
+    TaskExecutor partitionTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPartitionThreads());
+        executor.setThreadNamePrefix("partition-");
+        return executor;
+    }
+
+    @Bean
+    TaskExecutor stepTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getStepThreads());
+        executor.setThreadNamePrefix("chunk-");
+        return executor;
+    }
+
+    @Bean
+    RangeHashReconciler reconciler() {
+        return new RangeHashReconciler(verifyTaskExecutor(), properties.getVerifyFanOut(),
+                                       properties.getVerifyLeafIds());
+    }
+
+    @Bean
+    TaskExecutor verifyTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getVerifyThreads());
+        executor.setThreadNamePrefix("verify-");
+        // the ranges are compared in the step of the verification, see LatencyInjectingDataSource
+        executor.setTaskDecorator(new StepContextTaskDecorator());
+        return executor;
+    }
+
+    @Bean
+    @StepScope
+    AbstractReadAheadItemReader<CustomerTmp> reader(
+        @Value("#{stepExecutionContext['" + CustomerIdRangePartitioner.ID_AFTER + "']}") Long idAfter,
+        @Value("#{stepExecutionContext['" + CustomerIdRangePartitioner.ID_UP_TO + "']}") Long idUpTo,
+        @Value("#{stepExecution.jobExecutionId}") Long jobExecutionId) {
+        AbstractReadAheadItemReader<CustomerTmp> reader;
+        switch (properties.getReader()) {
+            case KEYSET:
+                KeysetChunkBaseReader keysetReader = new KeysetChunkBaseReader();
+                if (idUpTo != null) {
+                    keysetReader.setIdRange(idAfter.intValue(), idUpTo.intValue());
+                } else if (isRangeQueued()) {
+                    keysetReader.setIdRangeQueue(idRangeQueue(), jobExecutionId);
+                }
+                reader = keysetReader;
+                break;
+            case STATELESS:
+                reader = new StatelessChunkBaseReader();
+                break;
+            case CURSOR:
+                CursorChunkBaseReader cursorReader = new CursorChunkBaseReader();
+                cursorReader.setFetchSize(properties.getCursorFetchSize());
+                reader = cursorReader;
+                break;
+            case PAGE:
+            default:
+                reader = new ChunkBaseReader();
+                break;
+        }
+        reader.setPrefetchPageCount(properties.getPrefetchPages());
+        reader.setItemTrace(itemTrace());
+        reader.setFaultInjector(faultInjector(null));
+        return reader;
+    }
+
     @Bean
     @StepScope
-    ChunkBaseReader reader() {
-        return new ChunkBaseReader();
+    ConcurrentKeysetChunkBaseReader concurrentReader() {
+        ConcurrentKeysetChunkBaseReader reader = new ConcurrentKeysetChunkBaseReader();
+        reader.setItemTrace(itemTrace());
+        reader.setFaultInjector(faultInjector(null));
+        return reader;
     }
 
     @Bean
     @StepScope
     ChunkBaseProcessor processor() {
-        return new ChunkBaseProcessor();
+        ChunkBaseProcessor processor = new ChunkBaseProcessor();
+        processor.setSaveOnProcess(properties.getWriter() == WriterType.JPA);
+        processor.setItemTrace(itemTrace());
+        processor.setFaultInjector(faultInjector(null));
+        return processor;
+    }
+
+    @Bean
+    @StepScope
+    SavepointItemProcessor<CustomerTmp, Customer> savepointProcessor() {
+        SavepointItemProcessor<CustomerTmp, Customer> processor =
+            new SavepointItemProcessor<>(processor(), new JdbcSavepointTemplate(dataSource));
+        processor.setItemTrace(itemTrace());
+        return processor;
     }
 
     @Bean
     @StepScope
     ChunkBaseWriter writer() {
-        return new ChunkBaseWriter();
+        ChunkBaseWriter writer;
+        switch (properties.getWriter()) {
+            case JDBC:
+                JdbcBatchChunkBaseWriter jdbcWriter = new JdbcBatchChunkBaseWriter();
+                jdbcWriter.setRowsPerStatement(properties.getRowsPerInsert());
+                writer = jdbcWriter;
+                break;
+            case STATELESS:
+                writer = new StatelessChunkBaseWriter();
+                break;
+            case JPA:
+            default:
+                writer = new ChunkBaseWriter();
+                break;
+        }
+        writer.setItemTrace(itemTrace());
+        writer.setFaultInjector(faultInjector(null));
+        return writer;
     }
 
     @Bean
     @StepScope
     VerifyCopiedDataTasklet verify() {
-        return new VerifyCopiedDataTasklet();
+        VerifyCopiedDataTasklet verify = new VerifyCopiedDataTasklet();
+        if (properties.getVerify() == VerifyType.RANGE_HASH) {
+            verify.setReconciler(reconciler());
+        }
+        return verify;
     }
 
     @Bean
     @StepScope
-    CleanCopiedDataTasklet clean() {
-        return new CleanCopiedDataTasklet();
+    CleanCopiedDataTasklet clean(
+        @Value("#{jobParameters['" + CLEAN_STRATEGY + "'] ?: 'delete'}") String strategy,
+        @Value("#{jobParameters['" + CLEAN_BATCH_ROWS + "'] ?: '10000'}") String batchRows) {
+        CleanCopiedDataTasklet clean = new CleanCopiedDataTasklet();
+        clean.setStrategy(CleanCopiedDataTasklet.Strategy.valueOf(strategy.toUpperCase(Locale.ROOT)));
+        clean.setBatchRows(Integer.parseInt(batchRows));
+        return clean;
     }
 
 
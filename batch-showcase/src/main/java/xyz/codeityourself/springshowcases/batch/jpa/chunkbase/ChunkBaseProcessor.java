@@ -29,10 +29,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.beans.factory.annotation.Autowired;
+import lombok.Setter;
 import xyz.codeityourself.springshowcases.batch.jpa.entity.Customer;
 import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
 import xyz.codeityourself.springshowcases.batch.jpa.repository.CustomerRepository;
-import xyz.codeityourself.springshowcases.batch.jpa.support.ChunkBaseBatchSimulation;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector.Phase;
+import xyz.codeityourself.springshowcases.batch.support.ItemTrace;
 
 /**
  * @author Bao Ho (hotribao@gmail.com)
@@ -48,20 +51,32 @@ public class ChunkBaseProcessor implements ItemProcessor<CustomerTmp, Customer>
     @Autowired
     private CustomerRepository customerRepository;
 
+    // false when the writer persists the items itself (e.g. JdbcBatchChunkBaseWriter)
+    @Setter
+    private boolean saveOnProcess = true;
+
+    @Setter
+    private ItemTrace itemTrace = ItemTrace.LOG;
+
+    @Setter
+    private FaultInjector faultInjector = FaultInjector.NONE;
+
     @Override
     public Customer process(CustomerTmp customerTmp) {
-        LOGGER.info("  [PROCESS] item: {}", customerTmp);
+        itemTrace.trace(LOGGER, ItemTrace.Event.PROCESS, customerTmp);
 
-        ChunkBaseBatchSimulation.triggerErrorOnProcessing(customerTmp.getId());
+        faultInjector.check(Phase.PROCESS, customerTmp.getId());
 
         Customer customer = new Customer();
         customer.setId(customerTmp.getId());
         customer.setName(customerTmp.getName());
 
-        customerRepository.save(customer);
+        if (saveOnProcess) {
+            customerRepository.save(customer);
 
-        // make sure errors are reported to the correct item.
-        entityManager.flush();
+            // make sure errors are reported to the correct item.
+            entityManager.flush();
+        }
 
         return customer;
     }
@@ -0,0 +1,247 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.Getter;
+import lombok.Setter;
+import xyz.codeityourself.springshowcases.batch.jpa.support.HibernateStatisticsChunkListener;
+import xyz.codeityourself.springshowcases.batch.jpa.support.HibernateStatisticsChunkListener.OverBudget;
+import xyz.codeityourself.springshowcases.batch.support.ItemTrace;
+
+/**
+ * Tuning of the {@link ChunkBaseBatchConfiguration#MAIN_STEP_NAME} step.
+ * <p>
+ * The job definition is built once per application context, so anything changing the shape of the step is an
+ * application property (<code>application.properties</code>, or <code>-Dshowcase.chunk-base.xxx=...</code> on the
+ * command line) rather than a job parameter.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+@ConfigurationProperties(prefix = "showcase.chunk-base")
+@Getter
+@Setter
+public class ChunkBaseProperties {
+
+    /**
+     * how <code>customer_tmp</code> is read.
+     */
+    private ReaderType reader = ReaderType.PAGE;
+
+    /**
+     * number of pages the reader fetches ahead in a background thread. 0 (default): no prefetching.
+     * Only supported by {@link ReaderType#KEYSET} and {@link ReaderType#CURSOR}.
+     */
+    private int prefetchPages = 0;
+
+    /**
+     * rows fetched per round trip by {@link ReaderType#CURSOR}.
+     */
+    private int cursorFetchSize = 100;
+
+    /**
+     * how <code>customer</code> is written.
+     */
+    private WriterType writer = WriterType.JPA;
+
+    /**
+     * number of rows per INSERT statement of {@link WriterType#JDBC}.
+     */
+    private int rowsPerInsert = 100;
+
+    /**
+     * how the items failing the write of a chunk are singled out. {@link WriteScanType#BISECT} requires
+     * {@link WriterType#JDBC} or {@link WriterType#STATELESS}.
+     */
+    private WriteScanType writeScan = WriteScanType.ITEM;
+
+    /**
+     * true: every item is processed in a savepoint, a processing error skips the item without rolling back the
+     * chunk. false (default): a processing error rolls back the chunk, which is replayed without the item.
+     */
+    private boolean processInSavepoint = false;
+
+    /**
+     * number of id ranges the step is partitioned in, see {@link CustomerIdRangePartitioner}. 1 (default): not
+     * partitioned. Requires {@link ReaderType#KEYSET}, and {@link WriterType#JDBC} or
+     * {@link WriterType#STATELESS}.
+     */
+    private int partitions = 1;
+
+    /**
+     * how the ids are shared by the partitions.
+     */
+    private PartitionerType partitioner = PartitionerType.RANGE;
+
+    /**
+     * number of chunks in a range of {@link PartitionerType#QUEUE}.
+     */
+    private int queueRangeChunks = 4;
+
+    /**
+     * number of chunks processed at the same time by the step, each in its own thread, reading with
+     * {@link ConcurrentKeysetChunkBaseReader} (the reader option is then ignored). 1 (default): single-threaded.
+     * Requires {@link WriterType#JDBC} or {@link WriterType#STATELESS}, cannot be combined with partitions.
+     */
+    private int stepThreads = 1;
+
+    /**
+     * number of threads running the partitions.
+     */
+    private int partitionThreads = 4;
+
+    /**
+     * seconds between two log lines of the chunk statistics of the running job executions, see
+     * {@link xyz.codeityourself.springshowcases.batch.support.ChunkMetricsListener}. 0: not logged.
+     */
+    private int metricsLogInterval = 10;
+
+    /**
+     * maximum number of SQL statements hibernate may prepare per item of a chunk, see
+     * {@link HibernateStatisticsChunkListener}. 0 (default): not checked. Cannot be checked with partitions or
+     * step threads.
+     */
+    private double statementsPerItemBudget = 0;
+
+    /**
+     * what is done with a chunk over {@link #statementsPerItemBudget}.
+     */
+    private OverBudget statementsOverBudget = OverBudget.WARN;
+
+    /**
+     * how the items read, processed and written are traced. {@link ItemTrace.Mode#LOG} (default): one log line
+     * each. {@link ItemTrace.Mode#RING}: kept in a ring buffer, logged when their chunk is rolled back.
+     */
+    private ItemTrace.Mode itemTrace = ItemTrace.Mode.LOG;
+
+    /**
+     * number of events kept by {@link ItemTrace.Mode#RING}.
+     */
+    private int itemTraceSize = 8192;
+
+    /**
+     * how the copy is verified.
+     */
+    private VerifyType verify = VerifyType.IDS;
+
+    /**
+     * {@link VerifyType#RANGE_HASH}: number of buckets an id range is cut in.
+     */
+    private int verifyFanOut = 64;
+
+    /**
+     * {@link VerifyType#RANGE_HASH}: width of the id ranges compared id by id.
+     */
+    private int verifyLeafIds = 1024;
+
+    /**
+     * {@link VerifyType#RANGE_HASH}: number of ranges checked at the same time.
+     */
+    private int verifyThreads = 4;
+
+    public enum ReaderType {
+        /**
+         * {@link ChunkBaseReader}: offset paging (+ a count query per page).
+         */
+        PAGE,
+
+        /**
+         * {@link KeysetChunkBaseReader}: seek paging on the id.
+         */
+        KEYSET,
+
+        /**
+         * {@link CursorChunkBaseReader}: one forward-only cursor, on a connection of its own.
+         */
+        CURSOR,
+
+        /**
+         * {@link StatelessChunkBaseReader}: seek paging on the id, with the hibernate stateless session of the chunk
+         * transaction.
+         */
+        STATELESS
+    }
+
+    public enum WriterType {
+        /**
+         * items are saved and flushed one by one by {@link ChunkBaseProcessor}, {@link ChunkBaseWriter} writes
+         * nothing.
+         */
+        JPA,
+
+        /**
+         * {@link JdbcBatchChunkBaseWriter}: the whole chunk is inserted by batched, multi-row statements.
+         */
+        JDBC,
+
+        /**
+         * {@link StatelessChunkBaseWriter}: the chunk is inserted with the hibernate stateless session of the chunk
+         * transaction.
+         */
+        STATELESS
+    }
+
+    public enum WriteScanType {
+        /**
+         * Spring Batch default: the chunk is rolled back and re-processed, then re-written item by item, one
+         * transaction per item.
+         */
+        ITEM,
+
+        /**
+         * {@link xyz.codeityourself.springshowcases.batch.support.BisectingChunkProcessor}: the failed write is
+         * rolled back to a savepoint, then the chunk is split in halves and re-written, recursively, in the same
+         * transaction.
+         */
+        BISECT
+    }
+
+    public enum PartitionerType {
+        /**
+         * {@link CustomerIdRangePartitioner}: one id range of the same width per partition.
+         */
+        RANGE,
+
+        /**
+         * {@link CustomerIdRangeQueue}: small ranges of the same number of rows, claimed by the partitions until the
+         * table is exhausted.
+         */
+        QUEUE
+    }
+
+    public enum VerifyType {
+        /**
+         * the ids of both tables are loaded and compared.
+         */
+        IDS,
+
+        /**
+         * {@link RangeHashReconciler}: hashes of id ranges are compared in the database, only the ranges which
+         * differ are loaded.
+         */
+        RANGE_HASH
+    }
+}
@@ -36,6 +36,7 @@ import lombok.Getter;
 import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
 import xyz.codeityourself.springshowcases.batch.jpa.repository.CustomerTmpRepository;
 import xyz.codeityourself.springshowcases.batch.jpa.support.ChunkBaseBatchSimulation;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector.Phase;
 
 /**
  * @author Bao Ho (hotribao@gmail.com)
@@ -49,6 +50,9 @@ public class ChunkBaseReader
 
     private int pageId = 0;
 
+    // restarted step: the pages are the ones of the ids after it. null: all the ids
+    private Integer idAfter;
+
     @Autowired
     private CustomerTmpRepository customerTmpRepository;
 
@@ -70,7 +74,7 @@ public class ChunkBaseReader
     public CustomerTmp read() {
         CustomerTmp c = super.read();
         if (c != null) {
-            ChunkBaseBatchSimulation.triggerErrorOnReading(c.getId());
+            getFaultInjector().check(Phase.READ, c.getId());
         }
         return c;
     }
@@ -78,8 +82,21 @@ public class ChunkBaseReader
     @Override
     protected List<CustomerTmp> readItemsOfOnePage(int pageSize) {
         PageRequest pageRequest = new PageRequest(pageId++, pageSize, new Sort(ASC, "id"));
-        Page<CustomerTmp> page = customerTmpRepository.findAll(pageRequest);
+        Page<CustomerTmp> page = idAfter == null
+            ? customerTmpRepository.findAll(pageRequest)
+            : customerTmpRepository.findByIdGreaterThan(idAfter, pageRequest);
 
         return page.getContent();
     }
+
+    @Override
+    protected RestartKey<CustomerTmp> getRestartKey() {
+        return new RestartKey<>(CustomerTmp::getId, this::seekAfter);
+    }
+
+    // the offsets start over in the ids left, the ones already committed are not walked over again
+    private void seekAfter(Object restartKey) {
+        idAfter = (Integer) restartKey;
+        pageId = 0;
+    }
 }
@@ -29,7 +29,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.item.ItemWriter;
 import xyz.codeityourself.springshowcases.batch.jpa.entity.Customer;
-import xyz.codeityourself.springshowcases.batch.jpa.support.ChunkBaseBatchSimulation;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector.Phase;
+import xyz.codeityourself.springshowcases.batch.support.ItemTrace;
 
 /**
  * @author Bao Ho (hotribao@gmail.com)
@@ -38,12 +40,33 @@ import xyz.codeityourself.springshowcases.batch.jpa.support.ChunkBaseBatchSimula
 public class ChunkBaseWriter implements ItemWriter<Customer> {
     private static final Logger LOGGER = LoggerFactory.getLogger(ChunkBaseWriter.class);
 
+    private ItemTrace itemTrace = ItemTrace.LOG;
+
+    private FaultInjector faultInjector = FaultInjector.NONE;
+
+    public void setItemTrace(ItemTrace itemTrace) {
+        this.itemTrace = itemTrace;
+    }
+
+    public void setFaultInjector(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
     @Override
     public void write(List<? extends Customer> items) {
-        LOGGER.info("  [WRITE  ] items: {}", items);
+        itemTrace.traceAll(LOGGER, ItemTrace.Event.WRITE, items);
+
+        doWrite(items);
+
+        List<Integer> ids = items.stream().map(Customer::getId).collect(Collectors.toList());
+        faultInjector.check(Phase.WRITE, ids);
+        faultInjector.checkCommit(ids);
+    }
 
-        ChunkBaseBatchSimulation.triggerErrorOnWriting(items.stream()
-                                                           .map(Customer::getId)
-                                                           .collect(Collectors.toList()));
+    /**
+     * Nothing to do here by default: items are saved by {@link ChunkBaseProcessor}.
+     */
+    protected void doWrite(List<? extends Customer> items) {
+        // override to persist the items in the writer
     }
 }
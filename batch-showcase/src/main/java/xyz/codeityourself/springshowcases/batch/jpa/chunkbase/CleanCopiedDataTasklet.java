@@ -23,6 +23,8 @@
  */
 package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.StepContribution;
@@ -30,9 +32,14 @@ import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
 import xyz.codeityourself.springshowcases.batch.jpa.repository.CustomerRepository;
 
 /**
+ * Removes the rows copied by a previous run, see {@link Strategy}. The rows removed are counted as written by the
+ * step.
+ *
  * @author Bao Ho (hotribao@gmail.com)
  * @since 05.05.2019
  */
@@ -42,12 +49,92 @@ public class CleanCopiedDataTasklet implements Tasklet {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Strategy strategy = Strategy.ENTITIES;
+
+    private int batchRows = 10000;
+
+    // over the transactions of the step execution (the tasklet is step scoped)
+    private Long startNanos;
+    private long removedRows;
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public void setBatchRows(int batchRows) {
+        Assert.isTrue(batchRows > 0, "batchRows must be positive");
+        this.batchRows = batchRows;
+    }
+
     @Override
     public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
-        customerRepository.deleteAll();
+        if (startNanos == null) {
+            startNanos = System.nanoTime();
+        }
 
-        LOGGER.info("All copied data cleaned up");
+        int removed;
+        boolean done = true;
+        switch (strategy) {
+            case TRUNCATE:
+                removed = countRows();
+                jdbcTemplate.execute("TRUNCATE TABLE customer");
+                break;
+            case DELETE:
+                removed = deleteBatch();
+                // each batch commits before the next one: the step calls the tasklet again, in a new transaction
+                done = removed < batchRows;
+                break;
+            case ENTITIES:
+            default:
+                removed = countRows();
+                customerRepository.deleteAll();
+                break;
+        }
+        removedRows += removed;
+        contribution.incrementWriteCount(removed);
+
+        if (!done) {
+            return RepeatStatus.CONTINUABLE;
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        LOGGER.info("All copied data cleaned up ({}): {} rows in {} ms, {} rows/second", strategy, removedRows,
+                    millis, millis == 0 ? "-" : String.format("%.0f", removedRows * 1000.0 / millis));
 
         return RepeatStatus.FINISHED;
     }
+
+    private int countRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer", Integer.class);
+    }
+
+    // the batchRows lowest ids: the bound is found on the primary key, no row is loaded
+    private int deleteBatch() {
+        List<Integer> upTo = jdbcTemplate.queryForList("SELECT id FROM customer ORDER BY id LIMIT 1 OFFSET ?",
+                                                       Integer.class, batchRows - 1);
+        if (upTo.isEmpty()) {
+            return jdbcTemplate.update("DELETE FROM customer");
+        }
+        return jdbcTemplate.update("DELETE FROM customer WHERE id <= ?", upTo.get(0));
+    }
+
+    public enum Strategy {
+        /**
+         * {@link CustomerRepository#deleteAll()}: every entity is loaded, then deleted one by one.
+         */
+        ENTITIES,
+
+        /**
+         * <code>TRUNCATE TABLE</code>, in one transaction.
+         */
+        TRUNCATE,
+
+        /**
+         * <code>DELETE</code> of the rows by id range, one transaction per batch of rows.
+         */
+        DELETE
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
+
+import java.util.List;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import lombok.Getter;
+import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
+import xyz.codeityourself.springshowcases.batch.jpa.repository.CustomerTmpRepository;
+import xyz.codeityourself.springshowcases.batch.jpa.support.ChunkBaseBatchSimulation;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector.Phase;
+
+/**
+ * Same as {@link KeysetChunkBaseReader}, for a multi-threaded step.
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class ConcurrentKeysetChunkBaseReader extends AbstractConcurrentKeysetItemReader<CustomerTmp, Integer> {
+
+    @Autowired
+    private CustomerTmpRepository customerTmpRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    @Getter
+    private EntityManager entityManager;
+
+    @PostConstruct
+    public void postConstruct() {
+        setPageSize(ChunkBaseBatchSimulation.PAGE_SIZE);
+    }
+
+    @Override
+    protected int getChunkSize() {
+        return ChunkBaseBatchSimulation.CHUNK_SIZE;
+    }
+
+    @Override
+    public CustomerTmp read() {
+        CustomerTmp c = super.read();
+        if (c != null) {
+            getFaultInjector().check(Phase.READ, c.getId());
+        }
+        return c;
+    }
+
+    @Override
+    protected Integer getKey(CustomerTmp item) {
+        return item.getId();
+    }
+
+    @Override
+    protected Integer readKeyAfter(Integer lastId, int size) {
+        List<Integer> upTo = jdbcTemplate.queryForList("SELECT id FROM customer_tmp WHERE id > ? "
+                                                           + "ORDER BY id LIMIT 1 OFFSET ?",
+                                                       Integer.class, lastId == null ? Integer.MIN_VALUE : lastId,
+                                                       size - 1);
+        return upTo.isEmpty() ? null : upTo.get(0);
+    }
+
+    @Override
+    protected List<CustomerTmp> readItemsBetween(Integer idAfter, Integer idUpTo, int pageSize) {
+        PageRequest firstPage = new PageRequest(0, pageSize);
+        if (idUpTo != null) {
+            return customerTmpRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                idAfter == null ? Integer.MIN_VALUE : idAfter, idUpTo, firstPage);
+        }
+        if (idAfter == null) {
+            return customerTmpRepository.findAllByOrderByIdAsc(firstPage);
+        }
+        return customerTmpRepository.findByIdGreaterThanOrderByIdAsc(idAfter, firstPage);
+    }
+}
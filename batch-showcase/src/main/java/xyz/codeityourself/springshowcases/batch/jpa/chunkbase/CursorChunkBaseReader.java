@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.support.JdbcUtils;
+import lombok.Getter;
+import lombok.Setter;
+import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
+import xyz.codeityourself.springshowcases.batch.jpa.support.ChunkBaseBatchSimulation;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector.Phase;
+
+/**
+ * <p>
+ * Streams <code>customer_tmp</code> through one forward-only cursor instead of one query per page: the query is
+ * planned and the index entered once, then the rows are fetched sequentially, <code>fetchSize</code> rows per round
+ * trip.
+ * </p>
+ *
+ * <p>
+ * The cursor is opened on {@link #open(ExecutionContext)}, on a read-only connection of its own, outside of the
+ * chunk transactions so that it survives their commits and rollbacks, and closed on {@link #close()}. The read
+ * items are plain objects, not attached to the entity manager of the chunk.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class CursorChunkBaseReader extends AbstractReadAheadItemReader<CustomerTmp> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CursorChunkBaseReader.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PersistenceContext
+    @Getter
+    private EntityManager entityManager;
+
+    // rows fetched from the database per round trip
+    @Setter
+    private int fetchSize = 100;
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+
+    // restarted step: the cursor starts after it. null: at the first id
+    private Integer idAfter;
+
+    @PostConstruct
+    public void postConstruct() {
+        setPageSize(ChunkBaseBatchSimulation.PAGE_SIZE);
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        super.open(executionContext);
+        try {
+            // not DataSourceUtils: the connection must not be the one of a transaction
+            connection = dataSource.getConnection();
+            connection.setReadOnly(true);
+            connection.setAutoCommit(false);
+            statement = connection.prepareStatement("SELECT id, name FROM customer_tmp WHERE id > ? ORDER BY id",
+                                                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
+                                                    ResultSet.HOLD_CURSORS_OVER_COMMIT);
+            statement.setInt(1, idAfter == null ? Integer.MIN_VALUE : idAfter);
+            statement.setFetchSize(fetchSize);
+            resultSet = statement.executeQuery();
+            LOGGER.info("  [CURSOR ] opened. Fetch size: {}", fetchSize);
+        } catch (SQLException e) {
+            close();
+            throw new ItemStreamException("Could not open the cursor on customer_tmp", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        // before anything is closed: the prefetch thread iterates the same result set
+        if (!stopPrefetching() && statement != null) {
+            try {
+                // the only call allowed while the cursor is being read by another thread
+                statement.cancel();
+            } catch (SQLException e) {
+                LOGGER.warn("Could not cancel the cursor read by the prefetch thread", e);
+            }
+        }
+        super.close();
+        JdbcUtils.closeResultSet(resultSet);
+        JdbcUtils.closeStatement(statement);
+        if (connection != null) {
+            try {
+                // nothing was written, only ends the read transaction of the cursor
+                connection.rollback();
+                connection.setReadOnly(false);
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                LOGGER.warn("Could not reset the cursor connection", e);
+            }
+        }
+        JdbcUtils.closeConnection(connection);
+        resultSet = null;
+        statement = null;
+        connection = null;
+    }
+
+    @Override
+    protected int getChunkSize() {
+        return ChunkBaseBatchSimulation.CHUNK_SIZE;
+    }
+
+    @Override
+    public CustomerTmp read() {
+        CustomerTmp c = super.read();
+        if (c != null) {
+            getFaultInjector().check(Phase.READ, c.getId());
+        }
+        return c;
+    }
+
+    @Override
+    protected List<CustomerTmp> readItemsOfOnePage(int pageSize) {
+        List<CustomerTmp> items = new ArrayList<>(pageSize);
+        try {
+            while (items.size() < pageSize && resultSet.next()) {
+                CustomerTmp c = new CustomerTmp();
+                c.setId(resultSet.getInt("id"));
+                c.setName(resultSet.getString("name"));
+                items.add(c);
+            }
+        } catch (SQLException e) {
+            throw new DataRetrievalFailureException("Could not read the cursor on customer_tmp", e);
+        }
+        return items;
+    }
+
+    // the cursor is opened after it, see open(..)
+    @Override
+    protected RestartKey<CustomerTmp> getRestartKey() {
+        return new RestartKey<>(CustomerTmp::getId, restartKey -> idAfter = (Integer) restartKey);
+    }
+
+    @Override
+    protected Supplier<List<CustomerTmp>> getDetachedPageReader(int pageSize) {
+        // the cursor is detached anyway
+        return () -> readItemsOfOnePage(pageSize);
+    }
+}
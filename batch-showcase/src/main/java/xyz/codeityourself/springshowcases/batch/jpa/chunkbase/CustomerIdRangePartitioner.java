@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * <p>
+ * Splits <code>customer_tmp</code> in <code>gridSize</code> id ranges of the same width, between the MIN and MAX
+ * id. Each range is given to its worker step as (<code>{@value #ID_AFTER}</code>,
+ * <code>{@value #ID_UP_TO}</code>] in the step execution context, see {@link KeysetChunkBaseReader#setIdRange}.
+ * </p>
+ *
+ * <p>
+ * The ranges have the same width, not the same number of items: fine as long as the ids are dense. Gaps in the
+ * ids make some partitions longer than others.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class CustomerIdRangePartitioner implements Partitioner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CustomerIdRangePartitioner.class);
+
+    // exclusive lower bound of the range
+    public static final String ID_AFTER = "idAfter";
+
+    // inclusive upper bound of the range
+    public static final String ID_UP_TO = "idUpTo";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, Object> minMax = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id "
+                                                                  + "FROM customer_tmp");
+        Number minId = (Number) minMax.get("min_id");
+        Number maxId = (Number) minMax.get("max_id");
+
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        if (minId == null) {
+            // empty table: one empty range
+            partitions.put(partitionName(0), range(0, 0));
+            return partitions;
+        }
+
+        long after = minId.longValue() - 1;
+        long width = (maxId.longValue() - after + gridSize - 1) / gridSize;
+        for (int i = 0; i < gridSize && after < maxId.longValue(); i++) {
+            long upTo = Math.min(after + width, maxId.longValue());
+            partitions.put(partitionName(i), range(after, upTo));
+            LOGGER.info("  [PARTITION] {}: ({}, {}]", partitionName(i), after, upTo);
+            after = upTo;
+        }
+        return partitions;
+    }
+
+    private static String partitionName(int index) {
+        return "partition" + index;
+    }
+
+    private static ExecutionContext range(long after, long upTo) {
+        ExecutionContext context = new ExecutionContext();
+        context.putLong(ID_AFTER, after);
+        context.putLong(ID_UP_TO, upTo);
+        return context;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
+import lombok.Getter;
+
+/**
+ * <p>
+ * Hands out small id ranges of <code>customer_tmp</code>, of <code>rangeSize</code> rows each, to the partitions of
+ * the step: a partition claims a new range as soon as it is done with the previous one, until the table is
+ * exhausted. Unlike {@link CustomerIdRangePartitioner}, the work is shared by the number of rows, whatever the
+ * distribution of the ids, and a fast partition takes more ranges than a slow one.
+ * </p>
+ *
+ * <p>
+ * The ranges are cut lazily, one boundary query per claim, in ascending order. There is one queue per job
+ * execution, opened and closed by this listener registered on the partitioned (master) step.
+ * </p>
+ *
+ * <p>
+ * Restart: the queue itself is kept in memory only, but every partition checkpoints in its step execution context,
+ * at every commit, the id up to which all the ranges it claimed are copied (see {@link #checkpoint}). All the ids up
+ * to the lowest checkpoint of the partitions not completed are copied then. The restarted queue deletes from
+ * <code>customer</code> the rows copied after it, by the partitions which were ahead, and queues the ranges after it
+ * again. A stale checkpoint (e.g. written behind) only makes the restart copy again more rows.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class CustomerIdRangeQueue implements StepExecutionListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CustomerIdRangeQueue.class);
+
+    // in the step execution context of the partitions
+    private static final String COPIED_UP_TO = "copiedUpTo";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    private final int rangeSize;
+
+    // the partitions are step executions named "<workerStepName>:<partition>"
+    private final String workerStepName;
+
+    // by job execution id
+    private final Map<Long, Cursor> cursors = new ConcurrentHashMap<>();
+
+    public CustomerIdRangeQueue(int rangeSize, String workerStepName) {
+        Assert.isTrue(rangeSize > 0, "rangeSize must be positive");
+        this.rangeSize = rangeSize;
+        this.workerStepName = workerStepName;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        Cursor cursor = new Cursor();
+        Map<String, StepExecution> lastPartitions = lastPartitions(stepExecution.getJobExecution());
+        if (!lastPartitions.isEmpty()) {
+            restart(cursor, lastPartitions);
+        }
+        cursors.put(stepExecution.getJobExecutionId(), cursor);
+    }
+
+    // by name, the last execution of the partitions run by the previous executions of the job instance
+    private Map<String, StepExecution> lastPartitions(JobExecution jobExecution) {
+        Map<String, StepExecution> partitions = new HashMap<>();
+        for (JobExecution previous : jobExplorer.getJobExecutions(jobExecution.getJobInstance())) {
+            if (previous.getId().equals(jobExecution.getId())) {
+                continue;
+            }
+            for (StepExecution partition : previous.getStepExecutions()) {
+                if (partition.getStepName().startsWith(workerStepName + ":")) {
+                    partitions.merge(partition.getStepName(), partition,
+                                     (a, b) -> a.getId() > b.getId() ? a : b);
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private void restart(Cursor cursor, Map<String, StepExecution> lastPartitions) {
+        // the completed partitions are not run again, and have copied all the ranges they claimed
+        Integer copiedUpTo = lastPartitions.values().stream()
+            .filter(partition -> partition.getStatus() != BatchStatus.COMPLETED)
+            .map(partition -> partition.getExecutionContext().containsKey(COPIED_UP_TO)
+                ? partition.getExecutionContext().getInt(COPIED_UP_TO)
+                : Integer.MIN_VALUE)
+            .min(Integer::compare)
+            .orElse(null);
+        if (copiedUpTo == null) {
+            cursor.exhausted = true;
+            return;
+        }
+
+        // copied by the partitions which were ahead: their ranges are queued again
+        int deleted = jdbcTemplate.update("DELETE FROM customer WHERE id > ?", copiedUpTo);
+        LOGGER.info("  [RESTART] ranges queued again after id {}, {} rows copied after it deleted",
+                    copiedUpTo == Integer.MIN_VALUE ? "-" : copiedUpTo, deleted);
+        cursor.copiedUpTo = copiedUpTo;
+        if (copiedUpTo != Integer.MIN_VALUE) {
+            cursor.idAfter = copiedUpTo;
+        }
+    }
+
+    /**
+     * Called by a partition on open and at every commit.
+     *
+     * @param lastId the last id of the ranges claimed by the partition which is committed. null: none yet
+     */
+    public void checkpoint(long jobExecutionId, ExecutionContext partitionContext, Integer lastId) {
+        Cursor cursor = cursors.get(jobExecutionId);
+        Assert.state(cursor != null, "No range queue opened for job execution " + jobExecutionId);
+        // the ranges of this execution are all after the restart point
+        partitionContext.putInt(COPIED_UP_TO, lastId == null ? cursor.copiedUpTo : lastId);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        cursors.remove(stepExecution.getJobExecutionId());
+        return null;
+    }
+
+    /**
+     * @return the next range of the job execution, null when all the ids have been handed out.
+     */
+    public IdRange claim(long jobExecutionId) {
+        Cursor cursor = cursors.get(jobExecutionId);
+        Assert.state(cursor != null, "No range queue opened for job execution " + jobExecutionId);
+        synchronized (cursor) {
+            if (cursor.exhausted) {
+                return null;
+            }
+            if (cursor.idAfter == null) {
+                Integer minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM customer_tmp", Integer.class);
+                if (minId == null) {
+                    cursor.exhausted = true;
+                    return null;
+                }
+                cursor.idAfter = minId - 1;
+            }
+
+            // the id closing a range of rangeSize rows, or the last id of the table
+            List<Integer> upTo = jdbcTemplate.queryForList("SELECT id FROM customer_tmp WHERE id > ? "
+                                                               + "ORDER BY id LIMIT 1 OFFSET ?",
+                                                           Integer.class, cursor.idAfter, rangeSize - 1);
+            Integer idUpTo;
+            if (upTo.isEmpty()) {
+                cursor.exhausted = true;
+                idUpTo = jdbcTemplate.queryForObject("SELECT MAX(id) FROM customer_tmp WHERE id > ?",
+                                                     Integer.class, cursor.idAfter);
+                if (idUpTo == null) {
+                    return null;
+                }
+            } else {
+                idUpTo = upTo.get(0);
+            }
+
+            IdRange range = new IdRange(cursor.idAfter, idUpTo);
+            cursor.idAfter = idUpTo;
+            LOGGER.info("  [CLAIM  ] range: ({}, {}]", range.getIdAfter(), range.getIdUpTo());
+            return range;
+        }
+    }
+
+    private static class Cursor {
+        // exclusive lower bound of the next range. null: not started
+        private Integer idAfter;
+        private boolean exhausted;
+        // restarted queue: all the ids up to it were copied by the previous executions. MIN_VALUE: none
+        private int copiedUpTo = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Ids in (<code>idAfter</code>, <code>idUpTo</code>].
+     */
+    @Getter
+    public static class IdRange {
+        private final int idAfter;
+        private final int idUpTo;
+
+        public IdRange(int idAfter, int idUpTo) {
+            this.idAfter = idAfter;
+            this.idUpTo = idUpTo;
+        }
+    }
+}
@@ -23,7 +23,9 @@
  */
 package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
 
+import static java.lang.String.format;
 import static xyz.codeityourself.springshowcases.batch.jpa.chunkbase.ChunkBaseBatchConfiguration.MAIN_STEP_NAME;
+import java.util.Locale;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,8 +35,14 @@ import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.StringUtils;
+import xyz.codeityourself.springshowcases.batch.support.ChunkMetricsListener;
+import xyz.codeityourself.springshowcases.batch.support.ChunkMetricsListener.ChunkStatistics;
+import xyz.codeityourself.springshowcases.batch.support.ChunkMetricsListener.Phase;
 
 /**
  * @author Bao Ho (hotribao@gmail.com)
@@ -44,11 +52,39 @@ import org.springframework.beans.factory.annotation.Value;
 public class ExecutionSummaryTasklet implements Tasklet {
     private static final Logger LOGGER = LoggerFactory.getLogger(ExecutionSummaryTasklet.class);
 
+    // chunk transactions of the main step, in the job execution context
+    public static final String CHUNK_COUNT = "chunkCount";
+    public static final String ITEMS_PER_SECOND = "itemsPerSecond";
+    public static final String CHUNK_LATENCY_P50_MS = "chunkLatencyP50Ms";
+    public static final String CHUNK_LATENCY_P99_MS = "chunkLatencyP99Ms";
+    public static final String CHUNK_LATENCY_MAX_MS = "chunkLatencyMaxMs";
+
     @Value("#{jobExecution}")
     protected JobExecution jobExecution;
 
+    @Autowired
+    private ChunkMetricsListener chunkMetricsListener;
+
+    /**
+     * @return the key of the p99 of the time spent in the phase per chunk, in the job execution context
+     */
+    public static String phaseLatencyP99Key(Phase phase) {
+        return "chunk" + StringUtils.capitalize(phase.name().toLowerCase(Locale.ROOT)) + "P99Ms";
+    }
+
     @Override
     public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        ChunkStatistics statistics = chunkMetricsListener.remove(jobExecution.getId());
+        ExecutionContext jobContext = jobExecution.getExecutionContext();
+        jobContext.putLong(CHUNK_COUNT, statistics.getChunkCount());
+        jobContext.putDouble(ITEMS_PER_SECOND, statistics.getItemsPerSecond());
+        jobContext.putDouble(CHUNK_LATENCY_P50_MS, statistics.getPercentileMillis(50));
+        jobContext.putDouble(CHUNK_LATENCY_P99_MS, statistics.getPercentileMillis(99));
+        jobContext.putDouble(CHUNK_LATENCY_MAX_MS, statistics.getMaxMillis());
+        for (Phase phase : Phase.values()) {
+            jobContext.putDouble(phaseLatencyP99Key(phase), statistics.getPercentileMillis(phase, 99));
+        }
+
         if (LOGGER.isInfoEnabled()) {
             Optional<StepExecution> mainStep = jobExecution.getStepExecutions().stream()
                 .filter(step -> step.getStepName().equals(MAIN_STEP_NAME))
@@ -67,13 +103,32 @@ public class ExecutionSummaryTasklet implements Tasklet {
                 LOGGER.info("step {}: \n"
                                 + "             - total item processed: {}\n"
                                 + "             -             items OK: {}\n"
-                                + "             -             items KO: {}\n",
+                                + "             -             items KO: {}\n"
+                                + "             -   chunk transactions: {} ({} rolled back, {} rescans)\n"
+                                + "             -         items/second: {}\n"
+                                + "             -      chunk (p50/p99): {} / {} ms, max: {} ms\n"
+                                + "             -    read    (p50/p99): {} / {} ms\n"
+                                + "             -    process (p50/p99): {} / {} ms\n"
+                                + "             -    write   (p50/p99): {} / {} ms\n"
+                                + "             -    commit  (p50/p99): {} / {} ms\n",
                             stepInfo.getStepName(),
                             stepInfo.getReadCount() + stepInfo.getReadSkipCount(),
                             stepInfo.getWriteCount(),
                             stepInfo.getReadSkipCount()
                                 + stepInfo.getProcessSkipCount()
-                                + stepInfo.getWriteSkipCount()
+                                + stepInfo.getWriteSkipCount(),
+                            statistics.getChunkCount(), statistics.getRollbackCount(), statistics.getRescanCount(),
+                            decimal(statistics.getItemsPerSecond()),
+                            decimal(statistics.getPercentileMillis(50)), decimal(statistics.getPercentileMillis(99)),
+                            decimal(statistics.getMaxMillis()),
+                            decimal(statistics.getPercentileMillis(Phase.READ, 50)),
+                            decimal(statistics.getPercentileMillis(Phase.READ, 99)),
+                            decimal(statistics.getPercentileMillis(Phase.PROCESS, 50)),
+                            decimal(statistics.getPercentileMillis(Phase.PROCESS, 99)),
+                            decimal(statistics.getPercentileMillis(Phase.WRITE, 50)),
+                            decimal(statistics.getPercentileMillis(Phase.WRITE, 99)),
+                            decimal(statistics.getPercentileMillis(Phase.COMMIT, 50)),
+                            decimal(statistics.getPercentileMillis(Phase.COMMIT, 99))
                            );
             } else {
                 LOGGER.warn("step {} was not executed!", MAIN_STEP_NAME);
@@ -82,4 +137,8 @@ public class ExecutionSummaryTasklet implements Tasklet {
 
         return RepeatStatus.FINISHED;
     }
+
+    private static String decimal(double value) {
+        return format("%.3f", value);
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
+
+import javax.sql.DataSource;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import xyz.codeityourself.springshowcases.batch.jpa.support.CustomerTmpGenerator;
+import xyz.codeityourself.springshowcases.batch.support.TimestampJobParametersIncrementer;
+
+/**
+ * <p>
+ * A one-step job replacing the 20 rows of <code>customer_tmp</code> by as many synthetic rows as wanted, to run
+ * {@link ChunkBaseBatchConfiguration#JOB_NAME} at scale. The job parameters, all optional, are the settings of
+ * {@link CustomerTmpGenerator}: <code>rows</code> (default: 1000000), <code>keyDensity</code> (1.0),
+ * <code>nameMinLength</code> (5), <code>nameMaxLength</code> (20) and <code>seed</code> (0).
+ * </p>
+ *
+ * <p>
+ * Ids start at 1, so the failing ids of the copy job (see <code>FaultInjector</code>) still fail, if generated.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+@Configuration
+public class GenerateCustomerTmpBatchConfiguration {
+
+    // use this name to trigger the batch job
+    public static final String JOB_NAME = "jobGenerateCustomerTmp";
+
+    // job parameters
+    public static final String ROWS = "rows";
+    public static final String KEY_DENSITY = "keyDensity";
+    public static final String NAME_MIN_LENGTH = "nameMinLength";
+    public static final String NAME_MAX_LENGTH = "nameMaxLength";
+    public static final String SEED = "seed";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Bean(JOB_NAME)
+    public Job jobGenerateCustomerTmp(JobBuilderFactory jobFactory,
+                                      StepBuilderFactory stepFactory) {
+        return jobFactory.get(JOB_NAME)
+            .incrementer(new TimestampJobParametersIncrementer())
+            .start(stepFactory.get("generateCustomerTmp")
+                       .tasklet(generate(null, null, null, null, null))
+                       .build())
+            .build();
+    }
+
+    @Bean
+    @StepScope
+    GenerateCustomerTmpTasklet generate(
+        @Value("#{jobParameters['" + ROWS + "'] ?: 1000000}") Long rows,
+        @Value("#{jobParameters['" + KEY_DENSITY + "'] ?: 1.0}") Double keyDensity,
+        @Value("#{jobParameters['" + NAME_MIN_LENGTH + "'] ?: 5}") Integer nameMinLength,
+        @Value("#{jobParameters['" + NAME_MAX_LENGTH + "'] ?: 20}") Integer nameMaxLength,
+        @Value("#{jobParameters['" + SEED + "'] ?: 0}") Long seed) {
+        CustomerTmpGenerator generator = new CustomerTmpGenerator(dataSource);
+        generator.setKeyDensity(keyDensity);
+        generator.setNameMinLength(nameMinLength);
+        generator.setNameMaxLength(nameMaxLength);
+        generator.setSeed(seed);
+        return new GenerateCustomerTmpTasklet(generator, rows);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import lombok.Getter;
+import xyz.codeityourself.springshowcases.batch.jpa.chunkbase.CustomerIdRangeQueue.IdRange;
+import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
+import xyz.codeityourself.springshowcases.batch.jpa.repository.CustomerTmpRepository;
+import xyz.codeityourself.springshowcases.batch.jpa.support.ChunkBaseBatchSimulation;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector.Phase;
+
+/**
+ * Same as {@link ChunkBaseReader} but seeks pages by id instead of by page number.
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class KeysetChunkBaseReader extends AbstractKeysetItemReader<CustomerTmp, Integer> {
+
+    private static final RowMapper<CustomerTmp> ROW_MAPPER = (rs, rowNum) -> {
+        CustomerTmp c = new CustomerTmp();
+        c.setId(rs.getInt("id"));
+        c.setName(rs.getString("name"));
+        return c;
+    };
+
+    @Autowired
+    private CustomerTmpRepository customerTmpRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    @Getter
+    private EntityManager entityManager;
+
+    // (idAfter, idUpTo]. null: the whole table
+    private Integer idAfter;
+    private Integer idUpTo;
+
+    // ranges claimed one after the other. null: only the range above, if any
+    private CustomerIdRangeQueue idRangeQueue;
+    private long jobExecutionId;
+    // the last id read from the claimed ranges. null: none
+    private Integer lastClaimedIdRead;
+
+    @PostConstruct
+    public void postConstruct() {
+        setPageSize(ChunkBaseBatchSimulation.PAGE_SIZE);
+    }
+
+    /**
+     * Restricts the reader to the ids in (<code>idAfter</code>, <code>idUpTo</code>], e.g. a partition of
+     * {@link CustomerIdRangePartitioner}.
+     */
+    public void setIdRange(int idAfter, int idUpTo) {
+        this.idAfter = idAfter;
+        this.idUpTo = idUpTo;
+    }
+
+    /**
+     * Makes the reader read the ranges claimed from the queue of the job execution, one after the other until the
+     * queue is exhausted, and checkpoint them in the step execution context (see
+     * {@link CustomerIdRangeQueue#checkpoint}). The reader does not save its own state then: a restarted step claims
+     * its ranges again from the restarted queue.
+     */
+    public void setIdRangeQueue(CustomerIdRangeQueue idRangeQueue, long jobExecutionId) {
+        this.idRangeQueue = idRangeQueue;
+        this.jobExecutionId = jobExecutionId;
+        setSaveState(false);
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        super.open(executionContext);
+        if (idRangeQueue != null) {
+            idRangeQueue.checkpoint(jobExecutionId, executionContext, null);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        super.update(executionContext);
+        if (idRangeQueue != null && lastClaimedIdRead != null) {
+            idRangeQueue.checkpoint(jobExecutionId, executionContext, lastClaimedIdRead);
+        }
+    }
+
+    @Override
+    protected int getChunkSize() {
+        return ChunkBaseBatchSimulation.CHUNK_SIZE;
+    }
+
+    @Override
+    public CustomerTmp read() {
+        CustomerTmp c = super.read();
+        if (c != null) {
+            if (idRangeQueue != null) {
+                lastClaimedIdRead = c.getId();
+            }
+            getFaultInjector().check(Phase.READ, c.getId());
+        }
+        return c;
+    }
+
+    @Override
+    protected Integer getKey(CustomerTmp item) {
+        return item.getId();
+    }
+
+    @Override
+    protected List<CustomerTmp> readItemsAfter(Integer lastId, int pageSize) {
+        return readClaimingRanges(lastId, pageSize, false);
+    }
+
+    @Override
+    protected BiFunction<Integer, Integer, List<CustomerTmp>> getDetachedReader() {
+        return (lastId, pageSize) -> readClaimingRanges(lastId, pageSize, true);
+    }
+
+    // with a range queue, the next range is claimed whenever the current one is exhausted
+    private List<CustomerTmp> readClaimingRanges(Integer lastId, int pageSize, boolean detached) {
+        if (idRangeQueue == null) {
+            return readPage(lastId, pageSize, detached);
+        }
+
+        List<CustomerTmp> items = idUpTo == null ? Collections.emptyList() : readPage(lastId, pageSize, detached);
+        while (items.isEmpty()) {
+            IdRange range = idRangeQueue.claim(jobExecutionId);
+            if (range == null) {
+                return items;
+            }
+            setIdRange(range.getIdAfter(), range.getIdUpTo());
+            items = readPage(lastId, pageSize, detached);
+        }
+        return items;
+    }
+
+    private List<CustomerTmp> readPage(Integer lastId, int pageSize, boolean detached) {
+        if (idUpTo != null) {
+            // a range claimed after another one is above it: lastId is then below the range
+            int after = lastId == null || lastId < idAfter ? idAfter : lastId;
+            return detached ? readDetachedRange(after, pageSize) : readRange(after, pageSize);
+        }
+        return detached ? readDetachedAll(lastId, pageSize) : readAll(lastId, pageSize);
+    }
+
+    private List<CustomerTmp> readRange(int after, int pageSize) {
+        // always the first page (offset 0): the position is given by the id predicate.
+        // A List (not a Page) is returned so that no count query is issued.
+        return customerTmpRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(after, idUpTo,
+                                                                                       new PageRequest(0, pageSize));
+    }
+
+    private List<CustomerTmp> readAll(Integer lastId, int pageSize) {
+        PageRequest firstPage = new PageRequest(0, pageSize);
+        if (lastId == null) {
+            return customerTmpRepository.findAllByOrderByIdAsc(firstPage);
+        }
+        return customerTmpRepository.findByIdGreaterThanOrderByIdAsc(lastId, firstPage);
+    }
+
+    // plain JDBC: no transaction here, the connection is taken from the pool for this query only
+    private List<CustomerTmp> readDetachedRange(int after, int pageSize) {
+        return jdbcTemplate.query("SELECT id, name FROM customer_tmp WHERE id > ? AND id <= ? ORDER BY id LIMIT ?",
+                                  ROW_MAPPER, after, idUpTo, pageSize);
+    }
+
+    private List<CustomerTmp> readDetachedAll(Integer lastId, int pageSize) {
+        if (lastId == null) {
+            return jdbcTemplate.query("SELECT id, name FROM customer_tmp ORDER BY id LIMIT ?",
+                                      ROW_MAPPER, pageSize);
+        }
+        return jdbcTemplate.query("SELECT id, name FROM customer_tmp WHERE id > ? ORDER BY id LIMIT ?",
+                                  ROW_MAPPER, lastId, pageSize);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.codeityourself.springshowcases.batch.support.StepContextTaskDecorator;
+
+/**
+ * Fetches pages in a background thread, keeping at most <code>capacity</code> pages ready for the chunk thread.
+ * <p>
+ * The fetching thread has no transaction, thus nothing it does can touch the persistence context of the chunk
+ * being processed. An empty page means the end of the data and stops the fetching.
+ * </p>
+ *
+ * @param <I> type of the read item
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+class PagePrefetcher<I> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PagePrefetcher.class);
+
+    // a page being read when stopped is only interrupted between two pages
+    private static final long STOP_TIMEOUT_MILLIS = 30_000;
+
+    private final Supplier<List<I>> pageSupplier;
+    private final BlockingQueue<List<I>> readyPages;
+    private final Thread fetcher;
+
+    private volatile boolean stopped;
+    private volatile Throwable failure;
+
+    private boolean exhausted;
+
+    PagePrefetcher(Supplier<List<I>> pageSupplier, int capacity, String name) {
+        this.pageSupplier = pageSupplier;
+        this.readyPages = new ArrayBlockingQueue<>(capacity);
+        // in the step of the reader, as the chunk thread creating it
+        this.fetcher = new Thread(new StepContextTaskDecorator().decorate(this::fetchPages), name);
+        this.fetcher.setDaemon(true);
+    }
+
+    void start() {
+        fetcher.start();
+    }
+
+    /**
+     * @return the next page, waiting for it if not yet fetched. An empty list when there is no more data.
+     * @throws RuntimeException the one encountered while fetching the page. The fetching is stopped then, and a new
+     *                          prefetcher has to be started to retry.
+     */
+    List<I> take() {
+        if (exhausted) {
+            return Collections.emptyList();
+        }
+
+        List<I> page;
+        try {
+            page = readyPages.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next page", e);
+        }
+
+        if (page.isEmpty()) {
+            if (failure != null) {
+                throwFailure();
+            }
+            exhausted = true;
+        }
+        return page;
+    }
+
+    /**
+     * Stops the fetching and waits for the fetching thread to end, so that nothing is read any more through the
+     * resources of the page supplier once returned.
+     *
+     * @return false when the fetching thread is still running after the timeout
+     */
+    boolean stop() {
+        stopped = true;
+        fetcher.interrupt();
+        try {
+            fetcher.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (fetcher.isAlive()) {
+            LOGGER.warn("  [PREFETCH] {} still reading a page {} ms after being stopped", fetcher.getName(),
+                        STOP_TIMEOUT_MILLIS);
+            return false;
+        }
+        return true;
+    }
+
+    private void fetchPages() {
+        try {
+            while (!stopped) {
+                List<I> page = pageSupplier.get();
+                readyPages.put(page);
+                if (page.isEmpty()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // stopped
+        } catch (Throwable e) {
+            LOGGER.debug("Failed fetching page", e);
+            failure = e;
+            signalEnd();
+        }
+    }
+
+    private void signalEnd() {
+        try {
+            readyPages.put(Collections.emptyList());
+        } catch (InterruptedException e) {
+            // stopped
+        }
+    }
+
+    private void throwFailure() {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        throw new IllegalStateException(failure);
+    }
+}
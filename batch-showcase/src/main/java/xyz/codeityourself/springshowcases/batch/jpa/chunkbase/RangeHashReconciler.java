@@ -0,0 +1,270 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
+
+import static java.lang.String.format;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.function.BiFunction;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
+import lombok.Getter;
+
+/**
+ * <p>
+ * Compares the ids of two tables without loading them: the id range is cut in buckets, and a count, a sum and a hash
+ * of the ids of each bucket are computed by the database, one grouped query per table. Only the buckets which differ
+ * are cut again, recursively, until they are small enough to be compared id by id. The buckets are checked in
+ * parallel.
+ * </p>
+ *
+ * <p>
+ * Some ids of the source can be excluded, i.e. expected to be missing from the target. They are taken out of the
+ * count, sum and hash of the source buckets before the comparison, so a bucket is only cut again when the target
+ * differs otherwise, e.g. an excluded id found in the target. An excluded id which is not in the source (a gap in
+ * the ids) makes its bucket differ as well, at the cost of comparing it further.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class RangeHashReconciler {
+
+    // hash of an id: multiplicative hashing, modulo the largest 32-bit prime. Summed over a bucket, it catches an id
+    // replaced by another one, which a count and a sum alone could miss.
+    private static final long HASH_MULTIPLIER = 2654435761L;
+    private static final long HASH_MODULUS = 4294967291L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Executor executor;
+
+    private final int fanOut;
+
+    private final int leafIds;
+
+    /**
+     * @param fanOut number of buckets a range is cut in
+     * @param leafIds width of the ranges compared id by id
+     */
+    public RangeHashReconciler(Executor executor, int fanOut, int leafIds) {
+        Assert.isTrue(fanOut > 1, "fanOut must be greater than 1");
+        Assert.isTrue(leafIds > 0, "leafIds must be positive");
+        this.executor = executor;
+        this.fanOut = fanOut;
+        this.leafIds = leafIds;
+    }
+
+    /**
+     * @param sourceTable table with an integer <code>id</code> column
+     * @param targetTable table expected to have the same ids
+     * @param excluded the ids of the source not expected in the target, between two ids (included): bit i is for
+     *                 the id from + i
+     */
+    public Result reconcile(String sourceTable, String targetTable, BiFunction<Integer, Integer, BitSet> excluded) {
+        Result result = new Result();
+        long[] sourceBounds = bounds(sourceTable);
+        long[] targetBounds = bounds(targetTable);
+        if (sourceBounds == null && targetBounds == null) {
+            return result;
+        }
+        long min = Math.min(sourceBounds == null ? Long.MAX_VALUE : sourceBounds[0],
+                            targetBounds == null ? Long.MAX_VALUE : targetBounds[0]);
+        long max = Math.max(sourceBounds == null ? Long.MIN_VALUE : sourceBounds[1],
+                            targetBounds == null ? Long.MIN_VALUE : targetBounds[1]);
+
+        // once for the whole id range, then each bucket finds its excluded ids at no cost
+        Assert.isTrue(max - min < Integer.MAX_VALUE, format("id range too wide: [%d, %d]", min, max));
+        BitSet excludedIds = excluded.apply((int) min, (int) max);
+
+        Reconciliation reconciliation = new Reconciliation(sourceTable, targetTable, min, excludedIds, result);
+        try {
+            reconciliation.check(min, max).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    // [min, max] of the ids, null if the table is empty
+    private long[] bounds(String table) {
+        return jdbcTemplate.queryForObject(format("SELECT MIN(id), MAX(id) FROM %s", table), (rs, rowNum) -> {
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[] { min, rs.getLong(2) };
+        });
+    }
+
+    private class Reconciliation {
+        private final String sourceTable;
+        private final String targetTable;
+        private final long offset;
+        private final BitSet excludedIds;
+        private final Result result;
+
+        Reconciliation(String sourceTable, String targetTable, long offset, BitSet excludedIds, Result result) {
+            this.sourceTable = sourceTable;
+            this.targetTable = targetTable;
+            this.offset = offset;
+            this.excludedIds = excludedIds;
+            this.result = result;
+        }
+
+        CompletableFuture<Void> check(long from, long to) {
+            return CompletableFuture
+                .supplyAsync(() -> differingBuckets(from, to), executor)
+                .thenCompose(buckets -> CompletableFuture.allOf(buckets.stream()
+                                                                    .map(bucket -> check(bucket[0], bucket[1]))
+                                                                    .toArray(CompletableFuture[]::new)));
+        }
+
+        // the buckets of [from, to] to check further. None if [from, to] is compared id by id.
+        private List<long[]> differingBuckets(long from, long to) {
+            if (to - from + 1 <= leafIds) {
+                compareIds(from, to);
+                return Collections.emptyList();
+            }
+            result.hashedRanges.incrementAndGet();
+            long width = (to - from + fanOut) / fanOut;
+            Map<Long, long[]> sourceBuckets = hashBuckets(sourceTable, from, to, width);
+            Map<Long, long[]> targetBuckets = hashBuckets(targetTable, from, to, width);
+
+            List<long[]> differing = new ArrayList<>();
+            for (long bucket = 0; from + bucket * width <= to; bucket++) {
+                long bucketFrom = from + bucket * width;
+                long bucketTo = Math.min(to, bucketFrom + width - 1);
+                long[] source = sourceBuckets.getOrDefault(bucket, new long[3]);
+                long[] expected = withoutExcluded(source, bucketFrom, bucketTo);
+                if (Arrays.equals(expected, targetBuckets.getOrDefault(bucket, new long[3]))) {
+                    // all its excluded ids are in the source, and none in the target
+                    result.excludedCount.addAndGet(source[0] - expected[0]);
+                } else {
+                    differing.add(new long[] { bucketFrom, bucketTo });
+                }
+            }
+            return differing;
+        }
+
+        // [count, sum, hash] expected in the target: the ones of the source bucket, without its excluded ids
+        private long[] withoutExcluded(long[] sourceBucket, long from, long to) {
+            long[] expected = sourceBucket.clone();
+            for (int i = excludedIds.nextSetBit((int) (from - offset)); i >= 0 && i <= to - offset;
+                 i = excludedIds.nextSetBit(i + 1)) {
+                long id = offset + i;
+                expected[0]--;
+                expected[1] -= id;
+                expected[2] -= id * HASH_MULTIPLIER % HASH_MODULUS;
+            }
+            return expected;
+        }
+
+        // bucket -> [count, sum, hash] of the ids, empty buckets missing
+        private Map<Long, long[]> hashBuckets(String table, long from, long to, long width) {
+            String bucket = format("((CAST(id AS BIGINT) - %d) / %d)", from, width);
+            String sql = format("SELECT %s, COUNT(*), SUM(CAST(id AS BIGINT)), SUM(MOD(CAST(id AS BIGINT) * %d, %d)) "
+                                + "FROM %s WHERE id BETWEEN ? AND ? GROUP BY %s",
+                                bucket, HASH_MULTIPLIER, HASH_MODULUS, table, bucket);
+            Map<Long, long[]> buckets = new HashMap<>();
+            jdbcTemplate.query(sql, rs -> {
+                buckets.put(rs.getLong(1), new long[] { rs.getLong(2), rs.getLong(3), rs.getLong(4) });
+            }, from, to);
+            return buckets;
+        }
+
+        private void compareIds(long from, long to) {
+            result.comparedRanges.incrementAndGet();
+            String sql = "SELECT id FROM %s WHERE id BETWEEN ? AND ? ORDER BY id";
+            List<Integer> sourceIds = jdbcTemplate.queryForList(format(sql, sourceTable), Integer.class, from, to);
+            List<Integer> targetIds = jdbcTemplate.queryForList(format(sql, targetTable), Integer.class, from, to);
+
+            // merge of the two sorted lists
+            int s = 0;
+            int t = 0;
+            while (s < sourceIds.size() || t < targetIds.size()) {
+                int sourceId = s < sourceIds.size() ? sourceIds.get(s) : Integer.MAX_VALUE;
+                int targetId = t < targetIds.size() ? targetIds.get(t) : Integer.MAX_VALUE;
+                if (sourceId < targetId || t == targetIds.size()) {
+                    if (excludedIds.get((int) (sourceId - offset))) {
+                        result.excludedCount.incrementAndGet();
+                    } else {
+                        result.missingIds.add(sourceId);
+                    }
+                    s++;
+                } else if (targetId < sourceId || s == sourceIds.size()) {
+                    result.extraIds.add(targetId);
+                    t++;
+                } else {
+                    if (excludedIds.get((int) (sourceId - offset))) {
+                        result.extraIds.add(targetId);
+                    }
+                    s++;
+                    t++;
+                }
+            }
+        }
+    }
+
+    @Getter
+    public static class Result {
+        /**
+         * ids of the source, not excluded, missing from the target.
+         */
+        private final NavigableSet<Integer> missingIds = new ConcurrentSkipListSet<>();
+
+        /**
+         * ids of the target missing from the source, or excluded.
+         */
+        private final NavigableSet<Integer> extraIds = new ConcurrentSkipListSet<>();
+
+        /**
+         * excluded ids of the source, missing from the target as expected.
+         */
+        private final AtomicLong excludedCount = new AtomicLong();
+
+        /**
+         * ranges compared by hashes of their buckets.
+         */
+        private final AtomicLong hashedRanges = new AtomicLong();
+
+        /**
+         * ranges compared id by id.
+         */
+        private final AtomicLong comparedRanges = new AtomicLong();
+    }
+}
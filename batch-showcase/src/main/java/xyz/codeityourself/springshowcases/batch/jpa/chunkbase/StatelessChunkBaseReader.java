@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
+
+import java.util.List;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import lombok.Getter;
+import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
+import xyz.codeityourself.springshowcases.batch.jpa.support.ChunkBaseBatchSimulation;
+import xyz.codeityourself.springshowcases.batch.jpa.support.TransactionalStatelessSessionProvider;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector.Phase;
+
+/**
+ * Same as {@link KeysetChunkBaseReader} but reads with the stateless session of the chunk transaction: the read
+ * items are never attached to the entity manager, which stays empty for the whole chunk.
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class StatelessChunkBaseReader extends AbstractKeysetItemReader<CustomerTmp, Integer> {
+
+    @Autowired
+    private TransactionalStatelessSessionProvider sessionProvider;
+
+    // only to check that it stays empty
+    @PersistenceContext
+    @Getter
+    private EntityManager entityManager;
+
+    @PostConstruct
+    public void postConstruct() {
+        setPageSize(ChunkBaseBatchSimulation.PAGE_SIZE);
+    }
+
+    @Override
+    protected int getChunkSize() {
+        return ChunkBaseBatchSimulation.CHUNK_SIZE;
+    }
+
+    @Override
+    public CustomerTmp read() {
+        CustomerTmp c = super.read();
+        if (c != null) {
+            getFaultInjector().check(Phase.READ, c.getId());
+        }
+        return c;
+    }
+
+    @Override
+    protected Integer getKey(CustomerTmp item) {
+        return item.getId();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected List<CustomerTmp> readItemsAfter(Integer lastId, int pageSize) {
+        Query query;
+        if (lastId == null) {
+            query = sessionProvider.getCurrentSession()
+                .createQuery("FROM CustomerTmp c ORDER BY c.id");
+        } else {
+            query = sessionProvider.getCurrentSession()
+                .createQuery("FROM CustomerTmp c WHERE c.id > :lastId ORDER BY c.id")
+                .setParameter("lastId", lastId);
+        }
+        return query.setMaxResults(pageSize).list();
+    }
+}
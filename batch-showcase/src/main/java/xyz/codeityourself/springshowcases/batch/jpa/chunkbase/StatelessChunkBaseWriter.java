@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
+
+import java.util.List;
+import org.hibernate.StatelessSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import xyz.codeityourself.springshowcases.batch.jpa.entity.Customer;
+import xyz.codeityourself.springshowcases.batch.jpa.support.TransactionalStatelessSessionProvider;
+
+/**
+ * Inserts the chunk with the stateless session of the chunk transaction: one INSERT per item, executed right away,
+ * without any persistence context (no <code>merge()</code> SELECT, no dirty checking, no entity kept in memory).
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class StatelessChunkBaseWriter extends ChunkBaseWriter {
+
+    @Autowired
+    private TransactionalStatelessSessionProvider sessionProvider;
+
+    @Override
+    protected void doWrite(List<? extends Customer> items) {
+        StatelessSession session = sessionProvider.getCurrentSession();
+        for (Customer customer : items) {
+            session.insert(customer);
+        }
+    }
+}
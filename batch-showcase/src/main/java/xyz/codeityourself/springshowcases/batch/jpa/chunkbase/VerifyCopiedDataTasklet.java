@@ -23,7 +23,9 @@
  */
 package xyz.codeityourself.springshowcases.batch.jpa.chunkbase;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.NavigableSet;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,12 +34,9 @@ import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.util.Assert;
-import xyz.codeityourself.springshowcases.batch.jpa.entity.Customer;
-import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
-import xyz.codeityourself.springshowcases.batch.jpa.repository.CustomerRepository;
-import xyz.codeityourself.springshowcases.batch.jpa.repository.CustomerTmpRepository;
-import xyz.codeityourself.springshowcases.batch.jpa.support.ChunkBaseBatchSimulation;
+import xyz.codeityourself.springshowcases.batch.support.FaultInjector;
 
 /**
  * @author Bao Ho (hotribao@gmail.com)
@@ -46,35 +45,95 @@ import xyz.codeityourself.springshowcases.batch.jpa.support.ChunkBaseBatchSimula
 public class VerifyCopiedDataTasklet implements Tasklet {
     private static final Logger LOGGER = LoggerFactory.getLogger(VerifyCopiedDataTasklet.class);
 
+    // above, the ids are summarized in the messages
+    private static final int MAX_LISTED_IDS = 100;
+
     @Autowired
-    private CustomerRepository customerRepository;
+    private JdbcTemplate jdbcTemplate;
 
     @Autowired
-    private CustomerTmpRepository customerTmpRepository;
+    private FaultInjector faultInjector;
+
+    // null: the ids of the tables are listed and compared in memory
+    private RangeHashReconciler reconciler;
+
+    public void setReconciler(RangeHashReconciler reconciler) {
+        this.reconciler = reconciler;
+    }
 
     @Override
     public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
-        List<Integer> sourceIds = customerTmpRepository.findAll()
-            .stream()
-            .map(CustomerTmp::getId)
-            .collect(Collectors.toList());
+        if (reconciler != null) {
+            return reconcile();
+        }
 
-        List<Integer> targetIds = customerRepository.findAll()
-            .stream()
-            .map(Customer::getId)
-            .sorted()
-            .collect(Collectors.toList());
+        // ids only, sorted by the database: no entity is loaded into the persistence context, which would not hold
+        // tables of millions of rows
+        List<Integer> sourceIds = jdbcTemplate.queryForList("SELECT id FROM customer_tmp ORDER BY id", Integer.class);
+        List<Integer> targetIds = jdbcTemplate.queryForList("SELECT id FROM customer ORDER BY id", Integer.class);
 
         List<Integer> expectedTargetIds = sourceIds.stream()
-            .filter(id -> !ChunkBaseBatchSimulation.isErrorItemId(id))
-            .sorted()
+            .filter(id -> !faultInjector.isSkipped(id))
             .collect(Collectors.toList());
 
+        if (faultInjector.hasCommitFailures()) {
+            // the chunks failing at commit are lost as a whole: which items depends on how the chunks were made
+            List<Integer> unexpectedTargetIds = targetIds.stream()
+                .filter(id -> Collections.binarySearch(expectedTargetIds, id) < 0)
+                .collect(Collectors.toList());
+            Assert.isTrue(unexpectedTargetIds.isEmpty(), String.format(
+                "Unexpected data were copied: %s", describe(unexpectedTargetIds)));
+
+            LOGGER.info("Data copied as expected, but {} of {} items lost at commit: {}",
+                        expectedTargetIds.size() - targetIds.size(), expectedTargetIds.size(), describe(targetIds));
+            return RepeatStatus.FINISHED;
+        }
+
         Assert.isTrue(expectedTargetIds.equals(targetIds), String.format(
-            "Unexpected data were copied. Expected: %s. Actual: %s", expectedTargetIds, targetIds));
+            "Unexpected data were copied. Expected: %s. Actual: %s", describe(expectedTargetIds), describe(targetIds)));
+
+        LOGGER.info("Data copied as expected: {}", describe(expectedTargetIds));
+
+        return RepeatStatus.FINISHED;
+    }
+
+    // only the differences between the tables are loaded, see RangeHashReconciler
+    private RepeatStatus reconcile() {
+        RangeHashReconciler.Result result = reconciler.reconcile("customer_tmp", "customer", faultInjector::skippedIds);
+
+        Assert.isTrue(result.getExtraIds().isEmpty(), String.format(
+            "Unexpected data were copied: %s", describeDifference(result.getExtraIds())));
+        LOGGER.info("Range reconciliation: {} ranges compared by hashes, {} id by id",
+                    result.getHashedRanges(), result.getComparedRanges());
+
+        if (faultInjector.hasCommitFailures()) {
+            // the chunks failing at commit are lost as a whole: which items depends on how the chunks were made
+            LOGGER.info("Data copied as expected, {} items skipped, but {} items lost at commit: {}",
+                        result.getExcludedCount(), result.getMissingIds().size(),
+                        describeDifference(result.getMissingIds()));
+            return RepeatStatus.FINISHED;
+        }
 
-        LOGGER.info("Data copied as expected: {}", expectedTargetIds);
+        Assert.isTrue(result.getMissingIds().isEmpty(), String.format(
+            "Data were not copied: %s", describeDifference(result.getMissingIds())));
+
+        LOGGER.info("Data copied as expected, {} items skipped", result.getExcludedCount());
 
         return RepeatStatus.FINISHED;
     }
+
+    private static String describeDifference(NavigableSet<Integer> ids) {
+        if (ids.size() <= MAX_LISTED_IDS) {
+            return ids.toString();
+        }
+        return String.format("%d ids: %s...", ids.size(),
+                             ids.stream().limit(MAX_LISTED_IDS).collect(Collectors.toList()));
+    }
+
+    private static String describe(List<Integer> ids) {
+        if (ids.size() <= MAX_LISTED_IDS) {
+            return ids.toString();
+        }
+        return String.format("%d ids from %d to %d", ids.size(), ids.get(0), ids.get(ids.size() - 1));
+    }
 }
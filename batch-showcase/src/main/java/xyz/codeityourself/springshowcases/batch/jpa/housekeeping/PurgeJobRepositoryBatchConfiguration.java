@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.housekeeping;
+
+import java.util.concurrent.TimeUnit;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import xyz.codeityourself.springshowcases.batch.support.TimestampJobParametersIncrementer;
+
+/**
+ * <p>
+ * A one-step job removing the old executions of all the jobs from the job repository, see
+ * {@link PurgeJobRepositoryTasklet} for the retention policy. Every run of the other jobs creates a new job instance
+ * (see {@link TimestampJobParametersIncrementer}), so without it the <code>BATCH_*</code> tables grow with every run.
+ * </p>
+ *
+ * <p>
+ * The job parameters, all optional: <code>retentionDays</code> (default: 30, decimals allowed),
+ * <code>keepLastInstances</code> (10, per job name) and <code>batchInstances</code> (100, instances removed per
+ * transaction).
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+@Configuration
+public class PurgeJobRepositoryBatchConfiguration {
+
+    // use this name to trigger the batch job
+    public static final String JOB_NAME = "jobPurgeJobRepository";
+
+    // job parameters
+    public static final String RETENTION_DAYS = "retentionDays";
+    public static final String KEEP_LAST_INSTANCES = "keepLastInstances";
+    public static final String BATCH_INSTANCES = "batchInstances";
+
+    @Bean(JOB_NAME)
+    public Job jobPurgeJobRepository(JobBuilderFactory jobFactory,
+                                     StepBuilderFactory stepFactory) {
+        return jobFactory.get(JOB_NAME)
+            .incrementer(new TimestampJobParametersIncrementer())
+            .start(stepFactory.get("purgeJobRepository")
+                       .tasklet(purge(null, null, null))
+                       .build())
+            .build();
+    }
+
+    @Bean
+    @StepScope
+    PurgeJobRepositoryTasklet purge(
+        @Value("#{jobParameters['" + RETENTION_DAYS + "'] ?: '30'}") String retentionDays,
+        @Value("#{jobParameters['" + KEEP_LAST_INSTANCES + "'] ?: '10'}") String keepLastInstances,
+        @Value("#{jobParameters['" + BATCH_INSTANCES + "'] ?: '100'}") String batchInstances) {
+        PurgeJobRepositoryTasklet purge = new PurgeJobRepositoryTasklet();
+        purge.setRetentionMillis((long) (Double.parseDouble(retentionDays) * TimeUnit.DAYS.toMillis(1)));
+        purge.setKeepLastInstances(Integer.parseInt(keepLastInstances));
+        purge.setBatchInstances(Integer.parseInt(batchInstances));
+        return purge;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.housekeeping;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * <p>
+ * Removes the old job instances from the <code>BATCH_*</code> tables, with their executions, parameters, steps and
+ * execution contexts. Retention policy, for every job name:
+ * <ul>
+ *     <li>the last <code>keepLastInstances</code> instances are kept, whatever their age: the next run with
+ *     <code>-next</code> starts from the parameters of the last one, and a failed one can still be restarted</li>
+ *     <li>an older instance is removed once all its executions ended before the cutoff (now - retention). An
+ *     instance with an execution not ended (running, or abandoned by a JVM which died) is kept</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * The instances are removed <code>batchInstances</code> at a time, one transaction per batch (the step calls the
+ * tasklet again, as long as it returns {@link RepeatStatus#CONTINUABLE}): the locks and the undo log stay small and
+ * the jobs running meanwhile are not blocked for long. The instances removed are counted as written by the step.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class PurgeJobRepositoryTasklet implements Tasklet {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PurgeJobRepositoryTasklet.class);
+
+    // the instances of a job name which may be removed: the eligible ones are looked up by id, in order
+    private static final String SELECT_INSTANCES =
+        "SELECT I.JOB_INSTANCE_ID FROM BATCH_JOB_INSTANCE I"
+            + " WHERE I.JOB_NAME = ? AND I.JOB_INSTANCE_ID > ? AND I.JOB_INSTANCE_ID < ?"
+            + " AND NOT EXISTS (SELECT 1 FROM BATCH_JOB_EXECUTION E WHERE E.JOB_INSTANCE_ID = I.JOB_INSTANCE_ID"
+            + " AND (E.END_TIME IS NULL OR E.END_TIME >= ?))"
+            + " ORDER BY I.JOB_INSTANCE_ID LIMIT ?";
+
+    private static final String JOB_EXECUTIONS =
+        "SELECT JOB_EXECUTION_ID FROM BATCH_JOB_EXECUTION WHERE JOB_INSTANCE_ID IN (%s)";
+
+    // children first (foreign keys)
+    private static final String[] DELETES = {
+        "DELETE FROM BATCH_STEP_EXECUTION_CONTEXT WHERE STEP_EXECUTION_ID IN"
+            + " (SELECT STEP_EXECUTION_ID FROM BATCH_STEP_EXECUTION"
+            + " WHERE JOB_EXECUTION_ID IN (" + JOB_EXECUTIONS + "))",
+        "DELETE FROM BATCH_STEP_EXECUTION WHERE JOB_EXECUTION_ID IN (" + JOB_EXECUTIONS + ")",
+        "DELETE FROM BATCH_JOB_EXECUTION_CONTEXT WHERE JOB_EXECUTION_ID IN (" + JOB_EXECUTIONS + ")",
+        "DELETE FROM BATCH_JOB_EXECUTION_PARAMS WHERE JOB_EXECUTION_ID IN (" + JOB_EXECUTIONS + ")",
+        "DELETE FROM BATCH_JOB_EXECUTION WHERE JOB_INSTANCE_ID IN (%s)",
+        "DELETE FROM BATCH_JOB_INSTANCE WHERE JOB_INSTANCE_ID IN (%s)"
+    };
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long retentionMillis = TimeUnit.DAYS.toMillis(30);
+
+    private int keepLastInstances = 10;
+
+    private int batchInstances = 100;
+
+    // over the transactions of the step execution (the tasklet is step scoped)
+    private Long startNanos;
+    private Date cutoff;
+    private Deque<JobRange> jobs;
+    private final long[] removedRows = new long[DELETES.length];
+
+    public void setRetentionMillis(long retentionMillis) {
+        Assert.isTrue(retentionMillis >= 0, "retentionMillis must not be negative");
+        this.retentionMillis = retentionMillis;
+    }
+
+    public void setKeepLastInstances(int keepLastInstances) {
+        // the running purge is the last instance of its job: it must never be removed by itself
+        Assert.isTrue(keepLastInstances > 0, "keepLastInstances must be positive");
+        this.keepLastInstances = keepLastInstances;
+    }
+
+    public void setBatchInstances(int batchInstances) {
+        Assert.isTrue(batchInstances > 0, "batchInstances must be positive");
+        this.batchInstances = batchInstances;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        if (startNanos == null) {
+            startNanos = System.nanoTime();
+            cutoff = new Date(System.currentTimeMillis() - retentionMillis);
+            jobs = findJobRanges();
+        }
+
+        JobRange job = jobs.peek();
+        if (job != null) {
+            List<Long> instanceIds = jdbcTemplate.queryForList(SELECT_INSTANCES, Long.class, job.name, job.afterId,
+                                                               job.keptFromId, cutoff, batchInstances);
+            if (!instanceIds.isEmpty()) {
+                delete(instanceIds);
+                job.afterId = instanceIds.get(instanceIds.size() - 1);
+                job.removed += instanceIds.size();
+                contribution.incrementWriteCount(instanceIds.size());
+            }
+            if (instanceIds.size() < batchInstances) {
+                jobs.poll();
+                LOGGER.info("  [PURGE  ] {}: {} instances removed", job.name, job.removed);
+            }
+            // each batch commits before the next one: the step calls the tasklet again, in a new transaction
+            return RepeatStatus.CONTINUABLE;
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        LOGGER.info("  [PURGE  ] job repository purged of the executions ended before {} ({} last instances kept "
+                        + "per job) in {} ms: {} instances, {} job executions, {} step executions, {} parameters",
+                    cutoff, keepLastInstances, millis, removedRows[5], removedRows[4], removedRows[1],
+                    removedRows[3]);
+        return RepeatStatus.FINISHED;
+    }
+
+    // for every job name, the id of the oldest instance kept anyway
+    private Deque<JobRange> findJobRanges() {
+        Deque<JobRange> ranges = new ArrayDeque<>();
+        for (String jobName : jobExplorer.getJobNames()) {
+            List<JobInstance> oldestKept = jobExplorer.getJobInstances(jobName, keepLastInstances - 1, 1);
+            if (!oldestKept.isEmpty()) {
+                ranges.add(new JobRange(jobName, oldestKept.get(0).getInstanceId()));
+            }
+        }
+        return ranges;
+    }
+
+    private void delete(List<Long> instanceIds) {
+        String placeholders = String.join(",", Collections.nCopies(instanceIds.size(), "?"));
+        Object[] args = instanceIds.toArray();
+        for (int i = 0; i < DELETES.length; i++) {
+            removedRows[i] += jdbcTemplate.update(String.format(DELETES[i], placeholders), args);
+        }
+    }
+
+    private static class JobRange {
+        private final String name;
+        private final long keptFromId;
+        private long afterId = -1;
+        private long removed = 0;
+
+        private JobRange(String name, long keptFromId) {
+            this.name = name;
+            this.keptFromId = keptFromId;
+        }
+    }
+}
@@ -23,6 +23,9 @@
  */
 package xyz.codeityourself.springshowcases.batch.jpa.repository;
 
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
@@ -33,4 +36,13 @@ import xyz.codeityourself.springshowcases.batch.jpa.entity.CustomerTmp;
  */
 @Repository
 public interface CustomerTmpRepository extends JpaRepository<CustomerTmp, Integer> {
+
+    List<CustomerTmp> findAllByOrderByIdAsc(Pageable pageable);
+
+    List<CustomerTmp> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
+    Page<CustomerTmp> findByIdGreaterThan(Integer id, Pageable pageable);
+
+    List<CustomerTmp> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Integer idAfter, Integer idUpTo,
+                                                                       Pageable pageable);
 }
@@ -23,12 +23,6 @@
  */
 package xyz.codeityourself.springshowcases.batch.jpa.support;
 
-import static java.lang.String.format;
-import java.util.Arrays;
-import java.util.List;
-import org.springframework.util.CollectionUtils;
-import xyz.codeityourself.springshowcases.batch.support.BatchShowCaseSimulationErrorException;
-
 /**
  * @author Bao Ho (hotribao@gmail.com)
  * @since 05.05.2019
@@ -63,31 +57,9 @@ public class ChunkBaseBatchSimulation {
     public static final int CHUNK_SIZE = 3;
     public static final int PAGE_SIZE = 2;
 
-    private static final List<Integer> PROCESS_ERROR_ITEMS = Arrays.asList(5, 7, 8, 9);
-    private static final List<Integer> WRITE_ERROR_ITEMS = Arrays.asList(10, 11, 12);
-    private static final List<Integer> READ_ERROR_ITEMS = Arrays.asList(15);
-
-    public static void triggerErrorOnProcessing(int itemId) {
-        if (PROCESS_ERROR_ITEMS.contains(itemId)) {
-            throw new BatchShowCaseSimulationErrorException(format("simulate PROCESS error on item: %s", itemId));
-        }
-    }
-
-    public static void triggerErrorOnWriting(List<Integer> itemIds) {
-        if (CollectionUtils.containsAny(WRITE_ERROR_ITEMS, itemIds)) {
-            throw new BatchShowCaseSimulationErrorException(format("simulate WRITE error on item: %s", itemIds));
-        }
-    }
-
-    public static void triggerErrorOnReading(int itemId) {
-        if (READ_ERROR_ITEMS.contains(itemId)) {
-            throw new BatchShowCaseSimulationErrorException(format("simulate READ error on item: %s", itemId));
-        }
-    }
-
-    public static boolean isErrorItemId(int itemId) {
-        return PROCESS_ERROR_ITEMS.contains(itemId)
-            || WRITE_ERROR_ITEMS.contains(itemId)
-            || READ_ERROR_ITEMS.contains(itemId);
-    }
+    // failing ids of the scenario, the defaults of the job parameters of the FaultInjector (see
+    // ChunkBaseBatchConfiguration#faultInjector)
+    public static final String READ_ERROR_IDS = "15";
+    public static final String PROCESS_ERROR_IDS = "5,7-9";
+    public static final String WRITE_ERROR_IDS = "10-12";
 }
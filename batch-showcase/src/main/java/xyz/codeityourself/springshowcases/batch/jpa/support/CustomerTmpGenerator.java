@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.support;
+
+import static java.lang.String.format;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.Assert;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * <p>
+ * Replaces the content of <code>customer_tmp</code> by synthetic rows, to run the showcase at scale. The copied
+ * <code>customer</code> table is emptied as well, as it would not match the new data.
+ * </p>
+ *
+ * <p>
+ * The ids start at 1 and are ascending. With a <code>keyDensity</code> below 1, random gaps are left between them so
+ * that, on average, the given fraction of the id range is used: e.g. 0.5 gives twice as many ids as rows, which
+ * matters to whatever splits the table by id ranges. Names are random lowercase letters, of a length between
+ * <code>nameMinLength</code> and <code>nameMaxLength</code>. The same seed gives the same data.
+ * </p>
+ *
+ * <p>
+ * The rows are inserted by JDBC batches, on a connection of its own committed every <code>rowsPerCommit</code> rows,
+ * so that nothing grows with the number of rows: neither the heap nor the transaction.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+@Getter
+@Setter
+public class CustomerTmpGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CustomerTmpGenerator.class);
+
+    // customer_tmp.name VARCHAR(50)
+    public static final int NAME_MAX_LENGTH = 50;
+
+    private static final int ROWS_PER_BATCH = 1_000;
+
+    private final DataSource dataSource;
+
+    private double keyDensity = 1.0;
+    private int nameMinLength = 5;
+    private int nameMaxLength = 20;
+    private long seed = 0;
+    private int rowsPerCommit = 100_000;
+
+    public CustomerTmpGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @return the last generated id, 0 when no row was generated
+     */
+    public int generate(long rowCount) {
+        Assert.isTrue(rowCount >= 0, "rowCount must not be negative");
+        Assert.isTrue(keyDensity > 0 && keyDensity <= 1, "keyDensity must be in ]0, 1]");
+        Assert.isTrue(nameMinLength >= 0 && nameMinLength <= nameMaxLength && nameMaxLength <= NAME_MAX_LENGTH,
+                      format("name lengths must be in [0, %d], min <= max", NAME_MAX_LENGTH));
+        Assert.isTrue(rowsPerCommit > 0, "rowsPerCommit must be positive");
+
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            try (Statement truncate = connection.createStatement()) {
+                truncate.execute("TRUNCATE TABLE customer");
+                truncate.execute("TRUNCATE TABLE customer_tmp");
+            }
+            connection.commit();
+
+            int lastId = insertRows(connection, rowCount);
+            connection.commit();
+            return lastId;
+        } catch (SQLException e) {
+            rollback(connection);
+            throw new DataAccessResourceFailureException("Could not generate customer_tmp", e);
+        } catch (RuntimeException e) {
+            rollback(connection);
+            throw e;
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    LOGGER.warn("Could not reset the generator connection", e);
+                }
+            }
+            JdbcUtils.closeConnection(connection);
+        }
+    }
+
+    private int insertRows(Connection connection, long rowCount) throws SQLException {
+        Random random = new Random(seed);
+        // a gap before the next id, as the failures before a success of probability keyDensity
+        double logOfGapProbability = Math.log(1 - keyDensity);
+        char[] name = new char[nameMaxLength];
+
+        long start = System.nanoTime();
+        long id = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+            "INSERT INTO customer_tmp (id, name) VALUES (?, ?)")) {
+            for (long row = 1; row <= rowCount; row++) {
+                id += 1;
+                if (keyDensity < 1) {
+                    id += (long) (Math.log(1 - random.nextDouble()) / logOfGapProbability);
+                }
+                Assert.state(id <= Integer.MAX_VALUE, format("Ids exceed the INT column at row %d", row));
+
+                int nameLength = nameMinLength + random.nextInt(nameMaxLength - nameMinLength + 1);
+                for (int i = 0; i < nameLength; i++) {
+                    name[i] = (char) ('a' + random.nextInt(26));
+                }
+
+                insert.setInt(1, (int) id);
+                insert.setString(2, new String(name, 0, nameLength));
+                insert.addBatch();
+
+                if (row % ROWS_PER_BATCH == 0 || row == rowCount) {
+                    insert.executeBatch();
+                }
+                if (row % rowsPerCommit == 0) {
+                    connection.commit();
+                    LOGGER.info("  [GENERATE] {} rows ({} rows/s)", row, rowsPerSecond(row, start));
+                }
+            }
+        }
+        LOGGER.info("  [GENERATE] {} rows generated, last id: {} ({} rows/s)", rowCount, id,
+                    rowsPerSecond(rowCount, start));
+        return (int) id;
+    }
+
+    private static long rowsPerSecond(long rows, long startNanos) {
+        double elapsedSeconds = (double) Math.max(System.nanoTime() - startNanos, 1) / TimeUnit.SECONDS.toNanos(1);
+        return (long) (rows / elapsedSeconds);
+    }
+
+    private static void rollback(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            LOGGER.warn("Could not roll back the generator connection", e);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.support;
+
+import static java.lang.String.format;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import xyz.codeityourself.springshowcases.batch.support.StatementBudgetExceededException;
+
+/**
+ * <p>
+ * Publishes, per chunk transaction, what hibernate did: the deltas of the {@link Statistics} of the session factory
+ * (prepared statements, entity loads and fetches, flushes, query executions) between the start and the end of the
+ * chunk. Only the statements of hibernate are counted, not the ones of plain JDBC code (e.g. the JDBC writer or the
+ * job repository).
+ * </p>
+ *
+ * <p>
+ * Optionally, the statements per item of every chunk are checked against a budget, before the commit: an N+1 select
+ * or a merge-SELECT per item in a processor is then noticed on the first chunk. Over the budget, the chunk is logged
+ * ({@link OverBudget#WARN}) or rolled back and the step fails ({@link OverBudget#FAIL}).
+ * </p>
+ *
+ * <p>
+ * Hibernate statistics are global to the session factory: with chunks running at the same time (partitions,
+ * multi-threaded step), the delta of a chunk also counts the others. The metrics are then an approximation, and the
+ * budget cannot be checked.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class HibernateStatisticsChunkListener implements ChunkListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HibernateStatisticsChunkListener.class);
+
+    private final Statistics statistics;
+
+    private final MeterRegistry registry;
+
+    private final double statementsPerItemBudget;
+
+    private final OverBudget overBudget;
+
+    // by step name
+    private final Map<String, StepMeters> stepMeters = new ConcurrentHashMap<>();
+
+    // at the start of the chunk transaction running in the thread
+    private final ThreadLocal<Snapshot> chunkStart = new ThreadLocal<>();
+
+    /**
+     * @param statementsPerItemBudget 0: not checked
+     */
+    public HibernateStatisticsChunkListener(EntityManagerFactory entityManagerFactory, MeterRegistry registry,
+                                            double statementsPerItemBudget, OverBudget overBudget) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.registry = registry;
+        this.statementsPerItemBudget = statementsPerItemBudget;
+        this.overBudget = overBudget;
+        // same as hibernate.generate_statistics=true, the counters are not maintained otherwise
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        Snapshot start = new Snapshot(statistics, stepExecution);
+        chunkStart.set(start);
+        if (statementsPerItemBudget > 0) {
+            // the contribution of the chunk is applied to the step execution before the commit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    checkBudget(new Snapshot(statistics, stepExecution).minus(start));
+                }
+            });
+        }
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        publish(context, true);
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        publish(context, false);
+    }
+
+    private void publish(ChunkContext context, boolean committed) {
+        Snapshot start = chunkStart.get();
+        if (start == null) {
+            return;
+        }
+        chunkStart.remove();
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        Snapshot delta = new Snapshot(statistics, stepExecution).minus(start);
+        StepMeters meters = stepMeters.computeIfAbsent(stepExecution.getStepName(), StepMeters::new);
+        meters.statements.increment(delta.statements);
+        meters.entityLoads.increment(delta.entityLoads);
+        meters.entityFetches.increment(delta.entityFetches);
+        meters.flushes.increment(delta.flushes);
+        meters.queries.increment(delta.queries);
+        // the item counts of a rolled back chunk are rolled back too
+        if (committed && delta.items() > 0) {
+            meters.statementsPerItem.record(delta.statementsPerItem());
+        }
+    }
+
+    private void checkBudget(Snapshot chunk) {
+        // the last chunk reads no item, it only finds the end of the input
+        if (chunk.items() == 0 || chunk.statementsPerItem() <= statementsPerItemBudget) {
+            return;
+        }
+        String message = format(Locale.ROOT, "chunk of %d items over the budget of %.1f statements per item: %s",
+                                chunk.items(), statementsPerItemBudget, chunk);
+        stepMeters.computeIfAbsent(chunk.stepName, StepMeters::new).overBudget.increment();
+        if (overBudget == OverBudget.FAIL) {
+            throw new StatementBudgetExceededException(message);
+        }
+        LOGGER.warn("  [STATS  ] {}", message);
+    }
+
+    public enum OverBudget {
+        /**
+         * the chunk is logged and committed
+         */
+        WARN,
+
+        /**
+         * the chunk is rolled back, the step fails
+         */
+        FAIL
+    }
+
+    // counters of hibernate and of the step execution
+    private static class Snapshot {
+        private final String stepName;
+        private final long statements;
+        private final long entityLoads;
+        private final long entityFetches;
+        private final long flushes;
+        private final long queries;
+        // items read, and items done with: written, filtered or skipped. A rescanned chunk reads nothing.
+        private final long readItems;
+        private final long doneItems;
+
+        Snapshot(Statistics statistics, StepExecution stepExecution) {
+            this(stepExecution.getStepName(),
+                 statistics.getPrepareStatementCount(),
+                 statistics.getEntityLoadCount(),
+                 statistics.getEntityFetchCount(),
+                 statistics.getFlushCount(),
+                 statistics.getQueryExecutionCount(),
+                 stepExecution.getReadCount() + stepExecution.getReadSkipCount(),
+                 stepExecution.getWriteCount() + stepExecution.getFilterCount()
+                     + stepExecution.getProcessSkipCount() + stepExecution.getWriteSkipCount());
+        }
+
+        private Snapshot(String stepName, long statements, long entityLoads, long entityFetches, long flushes,
+                         long queries, long readItems, long doneItems) {
+            this.stepName = stepName;
+            this.statements = statements;
+            this.entityLoads = entityLoads;
+            this.entityFetches = entityFetches;
+            this.flushes = flushes;
+            this.queries = queries;
+            this.readItems = readItems;
+            this.doneItems = doneItems;
+        }
+
+        Snapshot minus(Snapshot start) {
+            return new Snapshot(stepName,
+                                statements - start.statements,
+                                entityLoads - start.entityLoads,
+                                entityFetches - start.entityFetches,
+                                flushes - start.flushes,
+                                queries - start.queries,
+                                readItems - start.readItems,
+                                doneItems - start.doneItems);
+        }
+
+        long items() {
+            return Math.max(readItems, doneItems);
+        }
+
+        double statementsPerItem() {
+            return (double) statements / Math.max(items(), 1);
+        }
+
+        @Override
+        public String toString() {
+            return format("%d statements, %d entity loads, %d entity fetches, %d flushes, %d queries",
+                          statements, entityLoads, entityFetches, flushes, queries);
+        }
+    }
+
+    private class StepMeters {
+        private final Counter statements;
+        private final Counter entityLoads;
+        private final Counter entityFetches;
+        private final Counter flushes;
+        private final Counter queries;
+        private final Counter overBudget;
+        private final DistributionSummary statementsPerItem;
+
+        StepMeters(String stepName) {
+            statements = counter(stepName, "statements");
+            entityLoads = counter(stepName, "entity.loads");
+            entityFetches = counter(stepName, "entity.fetches");
+            flushes = counter(stepName, "flushes");
+            queries = counter(stepName, "queries");
+            overBudget = Counter.builder("batch.chunk.hibernate.overbudget")
+                .tag("step", stepName)
+                .register(registry);
+            statementsPerItem = DistributionSummary.builder("batch.chunk.hibernate.statements.per.item")
+                .tag("step", stepName)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        }
+
+        private Counter counter(String stepName, String statistic) {
+            return Counter.builder("batch.chunk.hibernate")
+                .tag("step", stepName)
+                .tag("statistic", statistic)
+                .register(registry);
+        }
+    }
+}
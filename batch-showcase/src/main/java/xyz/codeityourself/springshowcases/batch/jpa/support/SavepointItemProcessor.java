@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.support;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import xyz.codeityourself.springshowcases.batch.support.ItemRolledBackToSavepointException;
+import xyz.codeityourself.springshowcases.batch.support.ItemTrace;
+import xyz.codeityourself.springshowcases.batch.support.JdbcSavepointTemplate;
+
+/**
+ * <p>
+ * Runs the delegate processor, for each item, inside a JDBC savepoint of the chunk transaction. When the delegate
+ * fails, what it did for the item is rolled back to the savepoint and an {@link ItemRolledBackToSavepointException}
+ * is thrown: registered as <code>noRollback</code> on the step, the item is skipped and the chunk goes on, instead
+ * of rolling back and replaying the whole chunk without the item.
+ * </p>
+ *
+ * <p>
+ * The entity manager is flushed before the savepoint (pending changes of the previous items must not be rolled
+ * back with this item) and inside it (changes of this item must be). On error, the persistence context is cleared
+ * as it may hold the entities of the failed item.
+ * </p>
+ *
+ * <p>
+ * If the transaction has already been marked rollback-only (e.g. by hibernate, on a failed flush), there is
+ * nothing to save: the original error is rethrown, the chunk is rolled back as usual.
+ * </p>
+ *
+ * @param <I> type of input items
+ * @param <O> type of output items
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class SavepointItemProcessor<I, O> implements ItemProcessor<I, O> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SavepointItemProcessor.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ItemProcessor<I, O> delegate;
+
+    private final JdbcSavepointTemplate savepointTemplate;
+
+    private ItemTrace itemTrace = ItemTrace.LOG;
+
+    public SavepointItemProcessor(ItemProcessor<I, O> delegate, JdbcSavepointTemplate savepointTemplate) {
+        this.delegate = delegate;
+        this.savepointTemplate = savepointTemplate;
+    }
+
+    public void setItemTrace(ItemTrace itemTrace) {
+        this.itemTrace = itemTrace;
+    }
+
+    @Override
+    public O process(I item) throws Exception {
+        entityManager.flush();
+        try {
+            return savepointTemplate.execute(() -> {
+                O output = delegate.process(item);
+                entityManager.flush();
+                return output;
+            });
+        } catch (Exception e) {
+            entityManager.clear();
+            if (isRollbackOnly()) {
+                throw e;
+            }
+            itemTrace.trace(LOGGER, ItemTrace.Event.SAVEPOINT_ROLLBACK, item);
+            throw new ItemRolledBackToSavepointException(e);
+        }
+    }
+
+    private boolean isRollbackOnly() {
+        EntityManagerHolder holder =
+            (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+        return holder == null
+            || holder.isRollbackOnly()
+            || holder.getEntityManager().getTransaction().getRollbackOnly();
+    }
+}
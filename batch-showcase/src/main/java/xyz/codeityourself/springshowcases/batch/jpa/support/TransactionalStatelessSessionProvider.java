@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.jpa.support;
+
+import java.sql.Connection;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * <p>
+ * Gives the hibernate {@link StatelessSession} of the current transaction: opened at the first call on the JDBC
+ * connection of the transaction (the one exposed by the JpaTransactionManager to JDBC code), closed when the
+ * transaction completes. So everything done with it is committed or rolled back with the transaction.
+ * </p>
+ *
+ * <p>
+ * A stateless session has no persistence context: no first-level cache, no dirty checking, no snapshot of the
+ * loaded entities. Each operation is executed immediately, the returned entities are detached.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class TransactionalStatelessSessionProvider {
+
+    private final SessionFactory sessionFactory;
+
+    private final DataSource dataSource;
+
+    public TransactionalStatelessSessionProvider(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.dataSource = dataSource;
+    }
+
+    public StatelessSession getCurrentSession() {
+        Assert.state(TransactionSynchronizationManager.isActualTransactionActive(),
+                     "A stateless session can only be used within a transaction");
+
+        StatelessSession session = (StatelessSession) TransactionSynchronizationManager.getResource(this);
+        if (session == null) {
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            StatelessSession newSession = sessionFactory.openStatelessSession(connection);
+            TransactionSynchronizationManager.bindResource(this, newSession);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(TransactionalStatelessSessionProvider.this);
+                    // does not close the connection, which was given to the session
+                    newSession.close();
+                    // the connection of the transaction: only its reference count is decremented
+                    DataSourceUtils.releaseConnection(connection, dataSource);
+                }
+            });
+            session = newSession;
+        }
+        return session;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.step.item.BatchRetryTemplate;
+import org.springframework.batch.core.step.item.Chunk;
+import org.springframework.batch.core.step.item.FaultTolerantChunkProcessor;
+import org.springframework.batch.core.step.item.SkipWrapper;
+import org.springframework.batch.core.step.skip.SkipPolicy;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.transaction.TransactionException;
+
+/**
+ * <p>
+ * A {@link FaultTolerantChunkProcessor} which locates the items failing on write by bisection, within the chunk
+ * transaction.
+ * </p>
+ *
+ * <p>
+ * By default, when the writer fails, spring-batch rolls the chunk back, then processes and writes it again, one item
+ * per transaction (scan): a bad item in a chunk of n items costs n more transactions. Here, every write is done in a
+ * savepoint instead. When the chunk fails, it is split in halves which are written again (in their own savepoint),
+ * the failing halves are split again and so on until the failing items are isolated. That is O(k.log(n)) writes for
+ * k bad items, and still a single transaction (and commit) for the chunk.
+ * </p>
+ *
+ * <p>
+ * Every write, of the chunk or of a half, is seen by the write listeners as a normal write: <code>beforeWrite</code>
+ * then <code>afterWrite</code> or <code>onWriteError</code>. So they see the failing chunk, the intermediate halves,
+ * down to every isolated failing item. The isolated items are skipped according to the write skip policy. A
+ * non-skippable error fails the chunk as usual.
+ * </p>
+ *
+ * <p>
+ * Caution:
+ * <ul>
+ * <li>Only the database work of the writer is rolled back to the savepoint, so the writer must do all the writing
+ * (e.g. nothing saved by the processor), through JDBC (see {@link JdbcSavepointTemplate}).</li>
+ * <li>Retry on write is not supported.</li>
+ * </ul>
+ * </p>
+ *
+ * @param <I> type of input items
+ * @param <O> type of output items
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class BisectingChunkProcessor<I, O> extends FaultTolerantChunkProcessor<I, O> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BisectingChunkProcessor.class);
+
+    private final JdbcSavepointTemplate savepointTemplate;
+
+    private SkipPolicy writeSkipPolicy;
+
+    public BisectingChunkProcessor(ItemProcessor<? super I, ? extends O> itemProcessor,
+                                   ItemWriter<? super O> itemWriter,
+                                   BatchRetryTemplate batchRetryTemplate,
+                                   JdbcSavepointTemplate savepointTemplate) {
+        super(itemProcessor, itemWriter, batchRetryTemplate);
+        this.savepointTemplate = savepointTemplate;
+    }
+
+    @Override
+    public void setWriteSkipPolicy(SkipPolicy writeSkipPolicy) {
+        super.setWriteSkipPolicy(writeSkipPolicy);
+        this.writeSkipPolicy = writeSkipPolicy;
+    }
+
+    @Override
+    protected void write(StepContribution contribution, Chunk<I> inputs, Chunk<O> outputs) throws Exception {
+        List<O> items = outputs.getItems();
+        List<SkipWrapper<O>> writeSkips = new ArrayList<>();
+
+        if (!items.isEmpty()) {
+            try {
+                // with all the write listeners, as the normal write
+                savepointTemplate.execute(() -> {
+                    doWrite(items);
+                    return null;
+                });
+                contribution.incrementWriteCount(items.size());
+            } catch (Exception e) {
+                checkBisectable(e);
+                LOGGER.debug("Chunk write failed, bisecting it to find the failing items", e);
+                isolateFailures(items, e, contribution, writeSkips);
+            }
+        }
+
+        callSkipListeners(inputs, writeSkips);
+    }
+
+    /**
+     * @param items   items which failed to be written together
+     * @param failure the error of writing the items
+     */
+    private void isolateFailures(List<O> items, Exception failure, StepContribution contribution,
+                                 List<SkipWrapper<O>> writeSkips) throws Exception {
+        if (items.size() == 1) {
+            // its write error is already notified by doWrite(..)
+            O item = items.get(0);
+            if (!writeSkipPolicy.shouldSkip(failure, contribution.getStepSkipCount())) {
+                throw failure;
+            }
+            contribution.incrementWriteSkipCount();
+            writeSkips.add(new SkipWrapper<>(item, failure));
+            return;
+        }
+
+        int middle = items.size() / 2;
+        for (List<O> half : Arrays.asList(items.subList(0, middle), items.subList(middle, items.size()))) {
+            Exception halfFailure = tryWrite(half);
+            if (halfFailure == null) {
+                contribution.incrementWriteCount(half.size());
+            } else {
+                isolateFailures(half, halfFailure, contribution, writeSkips);
+            }
+        }
+    }
+
+    /**
+     * @return the error of writing the items, null if written
+     */
+    private Exception tryWrite(List<O> items) throws Exception {
+        try {
+            savepointTemplate.execute(() -> {
+                doWrite(items);
+                return null;
+            });
+        } catch (Exception e) {
+            checkBisectable(e);
+            return e;
+        }
+        return null;
+    }
+
+    private void checkBisectable(Exception e) throws Exception {
+        // the savepoint itself failed, or the error can't be skipped anyway: the chunk must be rolled back
+        if (e instanceof TransactionException || !writeSkipPolicy.shouldSkip(e, -1)) {
+            throw e;
+        }
+    }
+
+    private void callSkipListeners(Chunk<I> inputs, List<SkipWrapper<O>> writeSkips) {
+        // same as the super class: items skipped on processing are recorded in the input chunk
+        for (SkipWrapper<I> skip : inputs.getSkips()) {
+            if (skip.getItem() != null) {
+                getListener().onSkipInProcess(skip.getItem(), skip.getException());
+            }
+        }
+        for (SkipWrapper<O> skip : writeSkips) {
+            getListener().onSkipInWrite(skip.getItem(), skip.getException());
+        }
+        inputs.clearSkips();
+    }
+}
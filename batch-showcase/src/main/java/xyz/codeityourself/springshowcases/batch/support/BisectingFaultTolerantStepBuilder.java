@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.batch.core.StepListener;
+import org.springframework.batch.core.step.builder.FaultTolerantStepBuilder;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.core.step.item.ChunkProcessor;
+import org.springframework.batch.core.step.item.KeyGenerator;
+import org.springframework.batch.core.step.skip.SkipPolicy;
+
+/**
+ * A {@link FaultTolerantStepBuilder} building the step with a {@link BisectingChunkProcessor}.
+ * <p>
+ * Usage: <code>new BisectingFaultTolerantStepBuilder&lt;&gt;(stepBuilder.chunk(size), savepointTemplate)</code>
+ * in place of <code>stepBuilder.chunk(size).faultTolerant()</code>.
+ * </p>
+ *
+ * @param <I> type of input items
+ * @param <O> type of output items
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class BisectingFaultTolerantStepBuilder<I, O> extends FaultTolerantStepBuilder<I, O> {
+
+    private final JdbcSavepointTemplate savepointTemplate;
+
+    // copies of the private fields of the super class, for createChunkProcessor()
+    private KeyGenerator keyGenerator;
+    private boolean processorTransactional = true;
+
+    public BisectingFaultTolerantStepBuilder(SimpleStepBuilder<I, O> parent, JdbcSavepointTemplate savepointTemplate) {
+        super(parent);
+        this.savepointTemplate = savepointTemplate;
+    }
+
+    @Override
+    public FaultTolerantStepBuilder<I, O> keyGenerator(KeyGenerator keyGenerator) {
+        this.keyGenerator = keyGenerator;
+        return super.keyGenerator(keyGenerator);
+    }
+
+    @Override
+    public FaultTolerantStepBuilder<I, O> processorNonTransactional() {
+        this.processorTransactional = false;
+        return super.processorNonTransactional();
+    }
+
+    // same as the super method, with another chunk processor class
+    @Override
+    protected ChunkProcessor<I> createChunkProcessor() {
+        BisectingChunkProcessor<I, O> chunkProcessor =
+            new BisectingChunkProcessor<>(getProcessor(), getWriter(), createRetryOperations(), savepointTemplate);
+        chunkProcessor.setBuffering(!isReaderTransactionalQueue());
+        chunkProcessor.setProcessorTransactional(processorTransactional);
+
+        SkipPolicy writeSkipPolicy = getFatalExceptionAwareProxy(createSkipPolicy());
+        chunkProcessor.setWriteSkipPolicy(writeSkipPolicy);
+        chunkProcessor.setProcessSkipPolicy(writeSkipPolicy);
+        chunkProcessor.setRollbackClassifier(getRollbackClassifier());
+        chunkProcessor.setKeyGenerator(keyGenerator);
+        detectStreamInReader();
+
+        List<StepListener> listeners = new ArrayList<>(getItemListeners());
+        listeners.addAll(getSkipListeners());
+        chunkProcessor.setListeners(listeners);
+        chunkProcessor.setChunkMonitor(getChunkMonitor());
+        return chunkProcessor;
+    }
+}
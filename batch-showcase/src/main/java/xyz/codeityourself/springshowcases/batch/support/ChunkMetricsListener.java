@@ -0,0 +1,479 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.support;
+
+import static java.lang.String.format;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PreDestroy;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * <p>
+ * Measures the chunk transactions of the steps it is registered on (as chunk, item read/process/write and skip
+ * listener). Every chunk transaction is split in phases: the time spent reading, processing and writing its items,
+ * and the rest of the transaction, mainly the update of the job repository and the commit (or rollback), shown as
+ * {@link Phase#COMMIT}. Retried and scanned chunks are one transaction each.
+ * </p>
+ *
+ * <p>
+ * The measures are:
+ * <ul>
+ * <li>published to Micrometer, tagged by step: timers <code>batch.chunk</code> (whole transaction) and
+ * <code>batch.chunk.phase</code> (tag <code>phase</code>), with p50/p99, counters <code>batch.chunk.items</code>
+ * (tag <code>outcome</code>: read, written), <code>batch.chunk.skips</code> (tag <code>phase</code>),
+ * <code>batch.chunk.transactions</code> (tag <code>outcome</code>: committed, rolledback) and
+ * <code>batch.chunk.rescans</code>: the failed writes of more than one item, which are then rescanned (or bisected)
+ * to single out the failing items.</li>
+ * <li>accumulated per job execution in {@link ChunkStatistics}, with HDR histograms of the whole run, until taken by
+ * {@link #remove(long)}, or dropped at the end of the job execution (registered as job execution listener on the
+ * job), whatever its outcome. Every <code>logIntervalSeconds</code>, the statistics of the running job executions are
+ * logged in one line.</li>
+ * </ul>
+ * The cost is a few <code>System.nanoTime()</code> per item and a few histogram records per chunk. One listener can
+ * serve the threads of partitioned and multi-threaded steps.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class ChunkMetricsListener implements ChunkListener, ItemReadListener<Object>,
+    ItemProcessListener<Object, Object>, ItemWriteListener<Object>, SkipListener<Object, Object>,
+    JobExecutionListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkMetricsListener.class);
+
+    private final MeterRegistry registry;
+
+    // by step name
+    private final Map<String, StepMeters> stepMeters = new ConcurrentHashMap<>();
+
+    // by job execution id
+    private final Map<Long, ChunkStatistics> statistics = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<ChunkTiming> chunkTiming = ThreadLocal.withInitial(ChunkTiming::new);
+
+    private ScheduledExecutorService reporter;
+
+    /**
+     * @param logIntervalSeconds 0: the statistics are not logged periodically
+     */
+    public ChunkMetricsListener(MeterRegistry registry, int logIntervalSeconds) {
+        this.registry = registry;
+        if (logIntervalSeconds > 0) {
+            reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "chunk-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(this::logStatistics, logIntervalSeconds, logIntervalSeconds,
+                                         TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the statistics of the job execution, which are forgotten by the listener. Empty ones if none.
+     */
+    public ChunkStatistics remove(long jobExecutionId) {
+        ChunkStatistics removed = statistics.remove(jobExecutionId);
+        return removed == null ? new ChunkStatistics() : removed;
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        // the statistics are created by the first chunk
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        // not taken by a summary, e.g. the job failed before it
+        statistics.remove(jobExecution.getId());
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        ChunkTiming timing = chunkTiming.get();
+        timing.start(stepMeters.computeIfAbsent(context.getStepContext().getStepName(), StepMeters::new),
+                     statistics.computeIfAbsent(context.getStepContext().getStepExecution().getJobExecutionId(),
+                                                id -> new ChunkStatistics()));
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        chunkTiming.get().end(true);
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        chunkTiming.get().end(false);
+    }
+
+    @Override
+    public void beforeRead() {
+        chunkTiming.get().startPhase();
+    }
+
+    @Override
+    public void afterRead(Object item) {
+        ChunkTiming timing = chunkTiming.get();
+        timing.endPhase(Phase.READ);
+        timing.readCount++;
+    }
+
+    @Override
+    public void onReadError(Exception ex) {
+        chunkTiming.get().endPhase(Phase.READ);
+    }
+
+    @Override
+    public void beforeProcess(Object item) {
+        chunkTiming.get().startPhase();
+    }
+
+    @Override
+    public void afterProcess(Object item, Object result) {
+        chunkTiming.get().endPhase(Phase.PROCESS);
+    }
+
+    @Override
+    public void onProcessError(Object item, Exception e) {
+        chunkTiming.get().endPhase(Phase.PROCESS);
+    }
+
+    @Override
+    public void beforeWrite(List<?> items) {
+        chunkTiming.get().startPhase();
+    }
+
+    @Override
+    public void afterWrite(List<?> items) {
+        ChunkTiming timing = chunkTiming.get();
+        timing.endPhase(Phase.WRITE);
+        timing.writeCount += items.size();
+    }
+
+    @Override
+    public void onWriteError(Exception exception, List<?> items) {
+        ChunkTiming timing = chunkTiming.get();
+        timing.endPhase(Phase.WRITE);
+        if (items.size() > 1) {
+            timing.rescanCount++;
+        }
+    }
+
+    @Override
+    public void onSkipInRead(Throwable t) {
+        chunkTiming.get().skip(Phase.READ);
+    }
+
+    @Override
+    public void onSkipInProcess(Object item, Throwable t) {
+        chunkTiming.get().skip(Phase.PROCESS);
+    }
+
+    @Override
+    public void onSkipInWrite(Object item, Throwable t) {
+        chunkTiming.get().skip(Phase.WRITE);
+    }
+
+    private void logStatistics() {
+        statistics.forEach((jobExecutionId, stats) -> {
+            if (stats.hasChangedSinceLastLog()) {
+                LOGGER.info("  [METRICS] job execution {}: {}", jobExecutionId, stats.toCompactString());
+            }
+        });
+    }
+
+    public enum Phase {
+        READ, PROCESS, WRITE, COMMIT;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // of the chunk transaction running in the thread
+    private static class ChunkTiming {
+        private StepMeters meters;
+        private ChunkStatistics stats;
+
+        private long chunkStart;
+        private long phaseStart;
+        private final long[] phaseNanos = new long[Phase.values().length];
+        private int readCount;
+        private int writeCount;
+        private int rescanCount;
+
+        void start(StepMeters meters, ChunkStatistics stats) {
+            this.meters = meters;
+            this.stats = stats;
+            chunkStart = System.nanoTime();
+            phaseStart = chunkStart;
+            for (int i = 0; i < phaseNanos.length; i++) {
+                phaseNanos[i] = 0;
+            }
+            readCount = 0;
+            writeCount = 0;
+            rescanCount = 0;
+        }
+
+        void startPhase() {
+            phaseStart = System.nanoTime();
+        }
+
+        void endPhase(Phase phase) {
+            phaseNanos[phase.ordinal()] += System.nanoTime() - phaseStart;
+        }
+
+        void skip(Phase phase) {
+            if (meters != null) {
+                meters.skips.get(phase).increment();
+                stats.skipCount.increment();
+            }
+        }
+
+        void end(boolean committed) {
+            if (meters == null) {
+                return;
+            }
+            long chunkNanos = System.nanoTime() - chunkStart;
+            phaseNanos[Phase.COMMIT.ordinal()] = Math.max(chunkNanos - phaseNanos[Phase.READ.ordinal()]
+                                                              - phaseNanos[Phase.PROCESS.ordinal()]
+                                                              - phaseNanos[Phase.WRITE.ordinal()], 0);
+            // items written by a rolled back chunk are not
+            int writtenCount = committed ? writeCount : 0;
+
+            meters.record(chunkNanos, phaseNanos, committed, readCount, writtenCount, rescanCount);
+            stats.record(chunkNanos, phaseNanos, committed, readCount, writtenCount, rescanCount);
+            meters = null;
+            stats = null;
+        }
+    }
+
+    private class StepMeters {
+        private final Timer chunk;
+        private final Map<Phase, Timer> phases = new EnumMap<>(Phase.class);
+        private final Map<Phase, Counter> skips = new EnumMap<>(Phase.class);
+        private final Counter readItems;
+        private final Counter writtenItems;
+        private final Counter committed;
+        private final Counter rolledBack;
+        private final Counter rescans;
+
+        StepMeters(String stepName) {
+            chunk = Timer.builder("batch.chunk")
+                .tag("step", stepName)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+            for (Phase phase : Phase.values()) {
+                phases.put(phase, Timer.builder("batch.chunk.phase")
+                    .tag("step", stepName)
+                    .tag("phase", phase.tag())
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry));
+                if (phase != Phase.COMMIT) {
+                    skips.put(phase, registry.counter("batch.chunk.skips", "step", stepName, "phase", phase.tag()));
+                }
+            }
+            readItems = registry.counter("batch.chunk.items", "step", stepName, "outcome", "read");
+            writtenItems = registry.counter("batch.chunk.items", "step", stepName, "outcome", "written");
+            committed = registry.counter("batch.chunk.transactions", "step", stepName, "outcome", "committed");
+            rolledBack = registry.counter("batch.chunk.transactions", "step", stepName, "outcome", "rolledback");
+            rescans = registry.counter("batch.chunk.rescans", "step", stepName);
+        }
+
+        void record(long chunkNanos, long[] phaseNanos, boolean isCommitted, int readCount, int writtenCount,
+                    int rescanCount) {
+            chunk.record(chunkNanos, TimeUnit.NANOSECONDS);
+            for (Phase phase : Phase.values()) {
+                phases.get(phase).record(phaseNanos[phase.ordinal()], TimeUnit.NANOSECONDS);
+            }
+            (isCommitted ? committed : rolledBack).increment();
+            readItems.increment(readCount);
+            writtenItems.increment(writtenCount);
+            rescans.increment(rescanCount);
+        }
+    }
+
+    /**
+     * Statistics of the chunk transactions of a job execution (all its steps and threads).
+     */
+    public static class ChunkStatistics {
+        // microseconds, 1 µs to 1 hour, 2 significant digits
+        private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+        private static final int SIGNIFICANT_DIGITS = 2;
+
+        private final Histogram chunks = newHistogram();
+        private final Map<Phase, Histogram> phases = new EnumMap<>(Phase.class);
+
+        private final LongAdder rollbackCount = new LongAdder();
+        private final LongAdder readCount = new LongAdder();
+        private final LongAdder writeCount = new LongAdder();
+        private final LongAdder skipCount = new LongAdder();
+        private final LongAdder rescanCount = new LongAdder();
+
+        private final long startNanos = System.nanoTime();
+        private volatile long lastChunkEndNanos = startNanos;
+
+        // only used by the reporter thread
+        private long lastLoggedChunkCount;
+
+        ChunkStatistics() {
+            for (Phase phase : Phase.values()) {
+                phases.put(phase, newHistogram());
+            }
+        }
+
+        private static Histogram newHistogram() {
+            return new ConcurrentHistogram(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        }
+
+        void record(long chunkNanos, long[] phaseNanos, boolean committed, int reads, int writes, int rescans) {
+            chunks.recordValue(toTrackableMicros(chunkNanos));
+            for (Phase phase : Phase.values()) {
+                phases.get(phase).recordValue(toTrackableMicros(phaseNanos[phase.ordinal()]));
+            }
+            if (!committed) {
+                rollbackCount.increment();
+            }
+            readCount.add(reads);
+            writeCount.add(writes);
+            rescanCount.add(rescans);
+            lastChunkEndNanos = System.nanoTime();
+        }
+
+        private static long toTrackableMicros(long nanos) {
+            return Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS);
+        }
+
+        public long getChunkCount() {
+            return chunks.getTotalCount();
+        }
+
+        public long getRollbackCount() {
+            return rollbackCount.sum();
+        }
+
+        public long getReadCount() {
+            return readCount.sum();
+        }
+
+        public long getWriteCount() {
+            return writeCount.sum();
+        }
+
+        public long getSkipCount() {
+            return skipCount.sum();
+        }
+
+        public long getRescanCount() {
+            return rescanCount.sum();
+        }
+
+        /**
+         * @return items read per second, from the creation of the statistics (first chunk) to the end of the last
+         * chunk
+         */
+        public double getItemsPerSecond() {
+            double seconds = (double) Math.max(lastChunkEndNanos - startNanos, 1) / TimeUnit.SECONDS.toNanos(1);
+            return getReadCount() / seconds;
+        }
+
+        /**
+         * @param percentile in ]0, 100]
+         * @return the duration of the chunk transactions at the percentile, in milliseconds
+         */
+        public double getPercentileMillis(double percentile) {
+            return toMillis(chunks.getValueAtPercentile(percentile));
+        }
+
+        public double getMaxMillis() {
+            return toMillis(chunks.getMaxValue());
+        }
+
+        /**
+         * @return the time spent in the phase per chunk transaction at the percentile, in milliseconds
+         */
+        public double getPercentileMillis(Phase phase, double percentile) {
+            return toMillis(phases.get(phase).getValueAtPercentile(percentile));
+        }
+
+        private static double toMillis(long micros) {
+            return micros / 1000.0;
+        }
+
+        boolean hasChangedSinceLastLog() {
+            long chunkCount = getChunkCount();
+            boolean changed = chunkCount != lastLoggedChunkCount;
+            lastLoggedChunkCount = chunkCount;
+            return changed;
+        }
+
+        /**
+         * @return the statistics in one line
+         */
+        public String toCompactString() {
+            long reads = getReadCount();
+            long chunkCount = getChunkCount();
+            return format(Locale.ROOT, "%d items read (%.1f/s), %d written, %d skipped (%.2f%%), "
+                              + "%d chunks p50/p99 %.3f/%.3f ms, p99 read/process/write/commit "
+                              + "%.3f/%.3f/%.3f/%.3f ms, %d rolled back (%.2f%%), %d rescans",
+                          reads, getItemsPerSecond(), getWriteCount(), getSkipCount(),
+                          reads == 0 ? 0 : getSkipCount() * 100.0 / reads,
+                          chunkCount, getPercentileMillis(50), getPercentileMillis(99),
+                          getPercentileMillis(Phase.READ, 99), getPercentileMillis(Phase.PROCESS, 99),
+                          getPercentileMillis(Phase.WRITE, 99), getPercentileMillis(Phase.COMMIT, 99),
+                          getRollbackCount(), chunkCount == 0 ? 0 : getRollbackCount() * 100.0 / chunkCount,
+                          getRescanCount());
+        }
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.support;
+
+import java.sql.SQLTransactionRollbackException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.DefaultJobKeyGenerator;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobKeyGenerator;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * <p>
+ * A job launcher running the jobs in the background, <code>threads</code> at a time. It returns as soon as the
+ * job execution is created (status {@link BatchStatus#STARTING}) and queued, like a
+ * {@link org.springframework.batch.core.launch.support.SimpleJobLauncher} with an asynchronous task executor, but:
+ * <ul>
+ *     <li>priority: the queued executions start by priority (highest first), then in submission order</li>
+ *     <li>limits per job name: at most {@link #setJobConcurrency(Map) jobConcurrency} executions of a job run at
+ *     the same time (e.g. 1 for the jobs sharing tables), the others wait in the queue without holding a thread:
+ *     a queued execution of another job may start first</li>
+ *     <li>admission: at most <code>queueCapacity</code> executions wait. When full, the caller waits up to
+ *     <code>admissionTimeoutMillis</code> for room (back-pressure, 0: not at all), then the launch is rejected with
+ *     a {@link TaskRejectedException}, before anything is written to the job repository</li>
+ *     <li>no duplicate: while an instance (job name and identifying parameters) is queued or running, another launch
+ *     of it fails with a {@link JobExecutionAlreadyRunningException}, even when both race before the first execution
+ *     is created in the job repository</li>
+ *     <li>retry: a creation of the job execution rolled back by the database (e.g. a serialization failure of
+ *     HSQLDB, racing with the updates of the running jobs) is tried again, up to {@link #CREATE_ATTEMPTS} times</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Not suitable for {@link org.springframework.batch.core.launch.support.CommandLineJobRunner}, which exits as soon
+ * as the launcher returns: it is meant for a long-lived process launching many jobs. For the same reason, it is not
+ * a {@link JobLauncher}: the command line runner and spring-boot look the {@link JobLauncher} bean up by type, the
+ * synchronous one of {@link org.springframework.batch.core.configuration.annotation.BatchConfigurer}.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class ConcurrentJobLauncher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentJobLauncher.class);
+
+    public static final int DEFAULT_PRIORITY = 0;
+
+    public static final int CREATE_ATTEMPTS = 5;
+
+    // before the n-th attempt: (n - 1) * this
+    private static final long CREATE_BACKOFF_MILLIS = 50;
+
+    private final JobRepository jobRepository;
+
+    private final int threads;
+
+    private final int queueCapacity;
+
+    private final ExecutorService executor;
+
+    private final JobKeyGenerator<JobParameters> jobKeyGenerator = new DefaultJobKeyGenerator();
+
+    private long admissionTimeoutMillis = 0;
+
+    // by job name, max executions running at the same time. Not listed: threads
+    private Map<String, Integer> jobConcurrency = new HashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+
+    // guarded by lock
+    private final TreeSet<Request> queue = new TreeSet<>(Comparator.comparingInt((Request r) -> -r.priority)
+                                                             .thenComparingLong(r -> r.sequence));
+    private final Map<String, Integer> runningByJob = new HashMap<>();
+    private final Set<String> instances = new HashSet<>();
+    private int admitted = 0;
+    private int running = 0;
+    private boolean closed = false;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ConcurrentJobLauncher(JobRepository jobRepository, int threads, int queueCapacity) {
+        Assert.notNull(jobRepository, "A JobRepository is required");
+        Assert.isTrue(threads > 0, "threads must be positive");
+        Assert.isTrue(queueCapacity > 0, "queueCapacity must be positive");
+        this.jobRepository = jobRepository;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        // never more tasks than threads are submitted: the executor does not queue
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("job-launcher-"));
+    }
+
+    public void setAdmissionTimeoutMillis(long admissionTimeoutMillis) {
+        Assert.isTrue(admissionTimeoutMillis >= 0, "admissionTimeoutMillis must not be negative");
+        this.admissionTimeoutMillis = admissionTimeoutMillis;
+    }
+
+    public void setJobConcurrency(Map<String, Integer> jobConcurrency) {
+        jobConcurrency.forEach((job, limit) -> Assert.isTrue(limit > 0, "Concurrency of " + job + " must be positive"));
+        this.jobConcurrency = new HashMap<>(jobConcurrency);
+    }
+
+    /**
+     * Same as {@link JobLauncher#run(Job, JobParameters)}, with the {@link #DEFAULT_PRIORITY}.
+     */
+    public JobExecution run(Job job, JobParameters jobParameters)
+        throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException,
+               JobParametersInvalidException {
+        return run(job, jobParameters, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Same as {@link #run(Job, JobParameters)}, <code>priority</code>: the highest start first.
+     */
+    public JobExecution run(Job job, JobParameters jobParameters, int priority)
+        throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException,
+               JobParametersInvalidException {
+        Assert.notNull(job, "The Job must not be null.");
+        Assert.notNull(jobParameters, "The JobParameters must not be null.");
+
+        String instance = job.getName() + "|" + jobKeyGenerator.generateKey(jobParameters);
+        admit(job, jobParameters, instance);
+
+        JobExecution jobExecution;
+        try {
+            checkRestart(job, jobParameters);
+            job.getJobParametersValidator().validate(jobParameters);
+            jobExecution = createJobExecution(job, jobParameters);
+        } catch (Exception e) {
+            release(instance);
+            throw e;
+        }
+
+        boolean closedMeanwhile;
+        lock.lock();
+        try {
+            closedMeanwhile = closed;
+            if (!closedMeanwhile) {
+                queue.add(new Request(job, jobExecution, instance, priority, sequence.getAndIncrement()));
+                LOGGER.info("  [LAUNCH ] {} queued (priority {}): {} queued, {} running", describe(jobExecution),
+                            priority, queue.size(), running);
+                dispatch();
+            }
+        } finally {
+            lock.unlock();
+        }
+        // the job repository is not updated holding the lock, as in close()
+        if (closedMeanwhile) {
+            fail(jobExecution, instance);
+            throw new TaskRejectedException("Job launcher closed, " + job.getName() + " not launched");
+        }
+        return jobExecution;
+    }
+
+    public int getQueuedCount() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getRunningCount() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting launches, fails the executions still queued (they can be restarted) and waits for the running
+     * ones to end.
+     */
+    public void close() throws InterruptedException {
+        List<Request> notStarted;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notStarted = new ArrayList<>(queue);
+            queue.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        for (Request request : notStarted) {
+            fail(request.jobExecution, request.instance);
+        }
+
+        executor.shutdown();
+        while (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            LOGGER.info("  [LAUNCH ] closing: waiting for {} running jobs", getRunningCount());
+        }
+        LOGGER.info("  [LAUNCH ] closed, {} queued executions failed", notStarted.size());
+    }
+
+    // reserves a place in the queue and the instance
+    private void admit(Job job, JobParameters jobParameters, String instance)
+        throws JobExecutionAlreadyRunningException {
+        lock.lock();
+        try {
+            long waitNanos = TimeUnit.MILLISECONDS.toNanos(admissionTimeoutMillis);
+            while (!closed && admitted - running >= queueCapacity && waitNanos > 0) {
+                waitNanos = notFull.awaitNanos(waitNanos);
+            }
+            if (closed) {
+                throw new TaskRejectedException("Job launcher closed, " + job.getName() + " not launched");
+            }
+            if (admitted - running >= queueCapacity) {
+                throw new TaskRejectedException(String.format("Job launcher saturated (%d queued, %d running), %s "
+                                                                  + "not launched", admitted - running, running,
+                                                              job.getName()));
+            }
+            if (!instances.add(instance)) {
+                throw new JobExecutionAlreadyRunningException("A job execution for this job is already queued or "
+                                                                  + "running: " + job.getName() + " "
+                                                                  + jobParameters);
+            }
+            admitted++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskRejectedException("Interrupted while waiting to launch " + job.getName(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(String instance) {
+        lock.lock();
+        try {
+            instances.remove(instance);
+            admitted--;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // an execution created but never started: restartable
+    private void fail(JobExecution jobExecution, String instance) {
+        jobExecution.upgradeStatus(BatchStatus.FAILED);
+        jobExecution.setExitStatus(ExitStatus.FAILED.addExitDescription("Not started: the launcher was closed"));
+        jobExecution.setEndTime(new Date());
+        jobRepository.update(jobExecution);
+        release(instance);
+    }
+
+    // the job repository creates the execution in a SERIALIZABLE transaction, rolled back whole on a conflict
+    private JobExecution createJobExecution(Job job, JobParameters jobParameters)
+        throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return jobRepository.createJobExecution(job.getName(), jobParameters);
+            } catch (DataAccessException e) {
+                // e.g. "transaction rollback: serialization failure" of HSQLDB, on the id incrementers too
+                if (!(e.getMostSpecificCause() instanceof SQLTransactionRollbackException)
+                    || attempt == CREATE_ATTEMPTS) {
+                    throw e;
+                }
+                LOGGER.info("  [LAUNCH ] {}: execution not created ({}), attempt {} of {}", job.getName(),
+                            e.getMostSpecificCause().getMessage(), attempt + 1, CREATE_ATTEMPTS);
+                try {
+                    Thread.sleep(attempt * CREATE_BACKOFF_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // same checks as SimpleJobLauncher
+    private void checkRestart(Job job, JobParameters jobParameters)
+        throws JobExecutionAlreadyRunningException, JobRestartException {
+        JobExecution lastExecution = jobRepository.getLastJobExecution(job.getName(), jobParameters);
+        if (lastExecution == null) {
+            return;
+        }
+        if (!job.isRestartable()) {
+            throw new JobRestartException("JobInstance already exists and is not restartable");
+        }
+        for (StepExecution stepExecution : lastExecution.getStepExecutions()) {
+            BatchStatus status = stepExecution.getStatus();
+            if (status.isRunning() || status == BatchStatus.STOPPING) {
+                throw new JobExecutionAlreadyRunningException("A job execution for this job is already running: "
+                                                                  + lastExecution);
+            } else if (status == BatchStatus.UNKNOWN) {
+                throw new JobRestartException("Cannot restart step [" + stepExecution.getStepName() + "] from "
+                                                  + "UNKNOWN status. The last execution ended with a failure that "
+                                                  + "could not be rolled back, so it may be dangerous to proceed. "
+                                                  + "Manual intervention is probably necessary.");
+            }
+        }
+    }
+
+    // guarded by lock: starts the queued executions allowed to run, by priority
+    private void dispatch() {
+        Iterator<Request> iterator = queue.iterator();
+        while (running < threads && iterator.hasNext()) {
+            Request request = iterator.next();
+            String jobName = request.job.getName();
+            int runningOfJob = runningByJob.getOrDefault(jobName, 0);
+            if (runningOfJob >= jobConcurrency.getOrDefault(jobName, threads)) {
+                continue;
+            }
+            iterator.remove();
+            runningByJob.put(jobName, runningOfJob + 1);
+            running++;
+            notFull.signalAll();
+            executor.execute(() -> execute(request));
+        }
+    }
+
+    private void execute(Request request) {
+        JobExecution jobExecution = request.jobExecution;
+        try {
+            LOGGER.info("  [LAUNCH ] {} started, waited {} ms", describe(jobExecution),
+                        System.currentTimeMillis() - jobExecution.getCreateTime().getTime());
+            request.job.execute(jobExecution);
+            LOGGER.info("  [LAUNCH ] {} ended: {}", describe(jobExecution), jobExecution.getStatus());
+        } catch (Throwable t) {
+            LOGGER.error("  [LAUNCH ] {} failed unexpectedly", describe(jobExecution), t);
+        } finally {
+            lock.lock();
+            try {
+                String jobName = request.job.getName();
+                runningByJob.merge(jobName, -1, Integer::sum);
+                running--;
+                admitted--;
+                instances.remove(request.instance);
+                dispatch();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static String describe(JobExecution jobExecution) {
+        return jobExecution.getJobInstance().getJobName() + " #" + jobExecution.getId() + " "
+            + jobExecution.getJobParameters();
+    }
+
+    private static class Request {
+        private final Job job;
+        private final JobExecution jobExecution;
+        private final String instance;
+        private final int priority;
+        private final long sequence;
+
+        private Request(Job job, JobExecution jobExecution, String instance, int priority, long sequence) {
+            this.job = job;
+            this.jobExecution = jobExecution;
+            this.instance = instance;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
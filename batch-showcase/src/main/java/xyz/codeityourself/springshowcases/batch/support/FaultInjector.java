@@ -0,0 +1,232 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.support;
+
+import static java.lang.String.format;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * Decides which items fail, and in which {@link Phase}: the ones listed by id (e.g. <code>5,7-9</code>, kept in a
+ * bitmap), and a given rate of the others. The rate is applied by hashing the id with a seed, not by drawing random
+ * numbers: an item fails the same way whenever it is processed (retried chunk, rescan, next run), and the items which
+ * should not have been copied are known afterwards, see {@link #isSkipped(int)}.
+ * </p>
+ *
+ * <p>
+ * A failing item throws a {@link BatchShowCaseSimulationErrorException} when read, processed or written. A
+ * {@link Phase#COMMIT} failure throws when the transaction writing the item commits.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class FaultInjector {
+
+    /**
+     * no item fails.
+     */
+    public static final FaultInjector NONE = new FaultInjector(0);
+
+    // the phases in which a failing item is skipped
+    private static final Phase[] SKIPPING_PHASES = { Phase.READ, Phase.PROCESS, Phase.WRITE };
+
+    private final long seed;
+
+    private final Map<Phase, BitSet> failingIds = new EnumMap<>(Phase.class);
+
+    private final Map<Phase, Double> failureRates = new EnumMap<>(Phase.class);
+
+    public FaultInjector(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param ids comma-separated ids and ranges of ids (e.g. <code>5,7-9</code>). Empty or <code>none</code>: no id.
+     */
+    public FaultInjector failIds(Phase phase, String ids) {
+        BitSet bitmap = new BitSet();
+        if (StringUtils.hasText(ids) && !"none".equalsIgnoreCase(ids.trim())) {
+            for (String range : StringUtils.commaDelimitedListToStringArray(ids)) {
+                String[] bounds = range.trim().split("-");
+                int from = Integer.parseInt(bounds[0].trim());
+                int to = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : from;
+                Assert.isTrue(from >= 0 && from <= to, format("invalid id range: %s", range));
+                bitmap.set(from, to + 1);
+            }
+        }
+        failingIds.put(phase, bitmap);
+        return this;
+    }
+
+    /**
+     * @param rate between 0 (no item) and 1 (all items)
+     */
+    public FaultInjector failRate(Phase phase, double rate) {
+        Assert.isTrue(rate >= 0 && rate <= 1, format("the failure rate must be between 0 and 1: %s", rate));
+        failureRates.put(phase, rate);
+        return this;
+    }
+
+    public boolean fails(Phase phase, int id) {
+        BitSet bitmap = failingIds.get(phase);
+        // no negative id in the bitmaps (BitSet.get(..) rejects them), only the rates apply
+        if (bitmap != null && id >= 0 && bitmap.get(id)) {
+            return true;
+        }
+        Double rate = failureRates.get(phase);
+        return rate != null && rate > 0 && uniform(phase, id) < rate;
+    }
+
+    /**
+     * @throws BatchShowCaseSimulationErrorException if the item fails in the phase
+     */
+    public void check(Phase phase, int id) {
+        if (fails(phase, id)) {
+            throw new BatchShowCaseSimulationErrorException(format("simulate %s error on item: %s", phase, id));
+        }
+    }
+
+    /**
+     * @throws BatchShowCaseSimulationErrorException if any of the items fails in the phase
+     */
+    public void check(Phase phase, List<Integer> ids) {
+        for (Integer id : ids) {
+            if (fails(phase, id)) {
+                throw new BatchShowCaseSimulationErrorException(format("simulate %s error on item: %s", phase, ids));
+            }
+        }
+    }
+
+    /**
+     * Makes the commit of the current transaction fail if any of the items fails in {@link Phase#COMMIT}.
+     */
+    public void checkCommit(List<Integer> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (Integer id : ids) {
+            if (fails(Phase.COMMIT, id)) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        throw new BatchShowCaseSimulationErrorException(
+                            format("simulate COMMIT error on item: %s", ids));
+                    }
+                });
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return whether the item fails when read, processed or written, i.e. is skipped by a step skipping everything
+     */
+    public boolean isSkipped(int id) {
+        for (Phase phase : SKIPPING_PHASES) {
+            if (fails(phase, id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the ids of [from, to] skipped (see {@link #isSkipped(int)}): bit i for the id from + i
+     */
+    public BitSet skippedIds(int from, int to) {
+        Assert.isTrue(from <= to, format("invalid id range: %d-%d", from, to));
+        BitSet skipped = new BitSet();
+        boolean anyRate = false;
+        for (Phase phase : SKIPPING_PHASES) {
+            BitSet bitmap = failingIds.get(phase);
+            // the bitmaps only hold the ids >= 0: clip the range
+            if (bitmap != null && to >= 0) {
+                int clippedFrom = Math.max(from, 0);
+                bitmap.get(clippedFrom, to + 1).stream().forEach(i -> skipped.set(clippedFrom - from + i));
+            }
+            Double rate = failureRates.get(phase);
+            anyRate |= rate != null && rate > 0;
+        }
+        if (anyRate) {
+            for (long id = from; id <= to; id++) {
+                if (!skipped.get((int) (id - from)) && isSkipped((int) id)) {
+                    skipped.set((int) (id - from));
+                }
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * @return whether some items fail at commit. Unlike the other failures, those are not skipped but take the
+     * whole chunk down: the items copied depend on how the chunks were made.
+     */
+    public boolean hasCommitFailures() {
+        BitSet bitmap = failingIds.get(Phase.COMMIT);
+        Double rate = failureRates.get(Phase.COMMIT);
+        return (bitmap != null && !bitmap.isEmpty()) || (rate != null && rate > 0);
+    }
+
+    // in [0, 1), the same for the same seed, phase and id (SplitMix64 finalizer)
+    private double uniform(Phase phase, int id) {
+        long z = seed + (phase.ordinal() + 1) * 0x9E3779B97F4A7C15L * (id + 1L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            BitSet bitmap = failingIds.get(phase);
+            Double rate = failureRates.get(phase);
+            if ((bitmap == null || bitmap.isEmpty()) && (rate == null || rate == 0)) {
+                continue;
+            }
+            description.append(description.length() == 0 ? "" : ", ").append(phase).append(':');
+            if (bitmap != null && !bitmap.isEmpty()) {
+                description.append(' ').append(bitmap.cardinality()).append(" ids");
+            }
+            if (rate != null && rate > 0) {
+                description.append(format(Locale.ROOT, " %.4f%%", rate * 100));
+            }
+        }
+        return description.length() == 0 ? "no failure" : description.toString();
+    }
+
+    public enum Phase {
+        READ, PROCESS, WRITE, COMMIT
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.support;
+
+import static java.lang.String.format;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+import xyz.codeityourself.springshowcases.jpa.entity.AbstractEntity;
+
+/**
+ * <p>
+ * Trace of the items going through the reader, the processor and the writer of a step, in one of the
+ * {@link Mode}s:
+ * <ul>
+ * <li>{@link Mode#LOG}: one INFO line per item (or per write), with the <code>toString()</code> of the items. Fine to
+ * follow a few items, but at millions of rows the formatting and the synchronous console cost more than the copy.
+ * </li>
+ * <li>{@link Mode#RING}: the id of the item, the phase, the thread and the time are stored in preallocated arrays, used
+ * as a ring buffer of the last <code>capacity</code> events. No allocation, no I/O, a few array writes per item.
+ * The events of a chunk are logged when it is rolled back (the trace must be registered as chunk listener of the
+ * step), and the whole buffer can be dumped on demand with {@link #dump()}, also exposed by JMX.</li>
+ * <li>{@link Mode#OFF}: nothing.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+@ManagedResource(objectName = "xyz.codeityourself.springshowcases:name=itemTrace",
+                 description = "Ring buffer of the last items read, processed and written")
+public class ItemTrace implements ChunkListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ItemTrace.class);
+
+    /**
+     * the default of the readers, processors and writers: the items are logged.
+     */
+    public static final ItemTrace LOG = new ItemTrace(Mode.LOG, 0);
+
+    private final Mode mode;
+
+    // slot of an event: sequence number & mask
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    // sequence number of the event in the slot, set last: -1 while the slot is being written
+    private final AtomicLongArray sequences;
+    private final long[] nanoTimes;
+    private final long[] threadIds;
+    private final long[] itemIds;
+    private final byte[] events;
+
+    // sequence number of the first event of the chunk of the thread
+    private final ThreadLocal<long[]> chunkStart = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * @param capacity number of events kept by {@link Mode#RING}, rounded up to a power of 2
+     */
+    public ItemTrace(Mode mode, int capacity) {
+        this.mode = mode;
+        int size = 1;
+        if (mode == Mode.RING) {
+            Assert.isTrue(capacity > 0, "the capacity of the ring buffer must be positive");
+            size = Integer.highestOneBit(capacity - 1) << 1;
+            size = Math.max(size, 1);
+        }
+        mask = size - 1;
+        sequences = new AtomicLongArray(size);
+        nanoTimes = new long[size];
+        threadIds = new long[size];
+        itemIds = new long[size];
+        events = new byte[size];
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, -1);
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Traces one item. In {@link Mode#LOG}, logs it with the given logger.
+     */
+    public void trace(Logger logger, Event event, Object item) {
+        switch (mode) {
+            case LOG:
+                logger.info(event.logFormat, item);
+                break;
+            case RING:
+                if (item != null) {
+                    record(event, item);
+                }
+                break;
+            case OFF:
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Traces the items of a chunk, one event each. In {@link Mode#LOG}, logs them in one line with the given logger.
+     */
+    public void traceAll(Logger logger, Event event, List<?> items) {
+        switch (mode) {
+            case LOG:
+                logger.info(event.logFormat, items);
+                break;
+            case RING:
+                for (int i = 0; i < items.size(); i++) {
+                    record(event, items.get(i));
+                }
+                break;
+            case OFF:
+            default:
+                break;
+        }
+    }
+
+    private void record(Event event, Object item) {
+        long sequence = nextSequence.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        sequences.set(slot, -1);
+        nanoTimes[slot] = System.nanoTime();
+        threadIds[slot] = Thread.currentThread().getId();
+        itemIds[slot] = idOf(item);
+        events[slot] = (byte) event.ordinal();
+        sequences.lazySet(slot, sequence);
+    }
+
+    private static long idOf(Object item) {
+        if (item instanceof AbstractEntity) {
+            Integer id = ((AbstractEntity) item).getId();
+            return id == null ? -1 : id;
+        }
+        if (item instanceof Number) {
+            return ((Number) item).longValue();
+        }
+        return System.identityHashCode(item);
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        if (mode == Mode.RING) {
+            chunkStart.get()[0] = nextSequence.get();
+        }
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        // nothing to dump
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        if (mode == Mode.RING) {
+            LOGGER.info("  [TRACE  ] rolled back chunk of {}:{}", context.getStepContext().getStepName(),
+                        dump(chunkStart.get()[0], Thread.currentThread().getId()));
+        }
+    }
+
+    /**
+     * @return the events still in the ring buffer, oldest first, one per line
+     */
+    @ManagedOperation(description = "Lists the events still in the ring buffer, oldest first")
+    public String dump() {
+        return dump(0, -1);
+    }
+
+    // events from the sequence number, of the thread (-1: all threads)
+    private String dump(long fromSequence, long threadId) {
+        long end = nextSequence.get();
+        long start = Math.max(fromSequence, end - (mask + 1));
+        StringBuilder dump = new StringBuilder();
+        long firstNanoTime = 0;
+        for (long sequence = start; sequence < end; sequence++) {
+            int slot = (int) (sequence & mask);
+            if (sequences.get(slot) != sequence) {
+                continue;
+            }
+            long nanoTime = nanoTimes[slot];
+            long eventThreadId = threadIds[slot];
+            long itemId = itemIds[slot];
+            Event event = Event.values()[events[slot]];
+            // overwritten while being read
+            if (sequences.get(slot) != sequence || (threadId >= 0 && eventThreadId != threadId)) {
+                continue;
+            }
+            if (firstNanoTime == 0) {
+                firstNanoTime = nanoTime;
+            }
+            dump.append(format(Locale.ROOT, "%n    +%10.3f ms  %-7s #%d  (thread %d)",
+                               (nanoTime - firstNanoTime) / 1_000_000.0, event, itemId, eventThreadId));
+        }
+        return dump.length() == 0 ? " (empty)" : dump.toString();
+    }
+
+    public enum Mode {
+        LOG, RING, OFF
+    }
+
+    public enum Event {
+        READ("  [READ   ] item: {}"),
+        PROCESS("  [PROCESS] item: {}"),
+        WRITE("  [WRITE  ] items: {}"),
+        // see SavepointItemProcessor
+        SAVEPOINT_ROLLBACK("  [SAVEPNT] rolled back item: {}");
+
+        private final String logFormat;
+
+        Event(String logFormat) {
+            this.logFormat = logFormat;
+        }
+    }
+}
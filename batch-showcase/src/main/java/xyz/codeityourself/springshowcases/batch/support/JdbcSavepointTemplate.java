@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.support;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.concurrent.Callable;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * <p>
+ * Runs a piece of work inside a JDBC savepoint of the current transaction: when the work fails, only what it did is
+ * rolled back, the transaction goes on.
+ * </p>
+ *
+ * <p>
+ * <code>PROPAGATION_NESTED</code> cannot be used for that: the JpaTransactionManager supports it only when the JPA
+ * dialect does, which is not the case of hibernate. So the savepoint is set directly on the JDBC connection of the
+ * transaction (the one exposed by the JpaTransactionManager to JDBC code).
+ * </p>
+ *
+ * <p>
+ * Caution: only the database work is rolled back. The hibernate session (entities, pending changes) is not, it is
+ * up to the caller to leave it in a consistent state.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class JdbcSavepointTemplate {
+
+    private final DataSource dataSource;
+
+    public JdbcSavepointTemplate(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public <T> T execute(Callable<T> work) throws Exception {
+        Assert.state(TransactionSynchronizationManager.isActualTransactionActive(),
+                     "A savepoint can only be set within a transaction");
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return execute(connection, work);
+        } finally {
+            // the connection of the transaction: only its reference count is decremented
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static <T> T execute(Connection connection, Callable<T> work) throws Exception {
+        Savepoint savepoint;
+        try {
+            savepoint = connection.setSavepoint();
+        } catch (SQLException e) {
+            throw new CannotCreateTransactionException("Could not create JDBC savepoint", e);
+        }
+
+        T result;
+        try {
+            result = work.call();
+        } catch (Exception | Error e) {
+            try {
+                connection.rollback(savepoint);
+            } catch (SQLException rollbackError) {
+                TransactionSystemException tse =
+                    new TransactionSystemException("Could not roll back to JDBC savepoint", rollbackError);
+                tse.initApplicationException(e);
+                throw tse;
+            }
+            throw e;
+        }
+
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            throw new TransactionSystemException("Could not release JDBC savepoint", e);
+        }
+        return result;
+    }
+}
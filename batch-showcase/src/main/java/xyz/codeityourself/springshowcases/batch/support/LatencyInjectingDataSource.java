@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import javax.sql.DataSource;
+import org.springframework.batch.core.scope.context.JobContext;
+import org.springframework.batch.core.scope.context.JobSynchronizationManager;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * <p>
+ * A DataSource adding a delay to the round trips to the database of a job execution: statement executions, commits
+ * and rollbacks, as a remote or loaded database would. The delay is set per job execution, e.g. at its start, and
+ * applies to the threads running its steps (see {@link StepSynchronizationManager}), the job repository updates they
+ * make included. The other job executions running at the same time are not slowed down.
+ * </p>
+ *
+ * <p>
+ * The connections are wrapped only while a delay is set for a job execution. The delay is made with
+ * {@link LockSupport#parkNanos(long)}, whose resolution is some tens of microseconds.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class LatencyInjectingDataSource extends DelegatingDataSource {
+
+    // job execution id -> delay
+    private final Map<Long, Long> roundTripNanos = new ConcurrentHashMap<>();
+
+    public LatencyInjectingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    /**
+     * @param roundTripMicros 0: no delay
+     */
+    public void setRoundTripMicros(long jobExecutionId, long roundTripMicros) {
+        if (roundTripMicros > 0) {
+            roundTripNanos.put(jobExecutionId, TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+        } else {
+            roundTripNanos.remove(jobExecutionId);
+        }
+    }
+
+    public long getRoundTripMicros(long jobExecutionId) {
+        return TimeUnit.NANOSECONDS.toMicros(roundTripNanos.getOrDefault(jobExecutionId, 0L));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    // pooled connections are taken per transaction: a job setting its delay gets wrapped ones from the next one on
+    private Connection wrap(Connection connection) {
+        return roundTripNanos.isEmpty() ? connection : (Connection) proxy(Connection.class, connection);
+    }
+
+    private Object proxy(Class<?> type, Object target) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type },
+                                      new RoundTripHandler(target));
+    }
+
+    private void roundTrip() {
+        Long jobExecutionId = currentJobExecutionId();
+        Long nanos = jobExecutionId == null ? null : roundTripNanos.get(jobExecutionId);
+        if (nanos != null) {
+            LockSupport.parkNanos(nanos);
+        }
+    }
+
+    // the job execution of the current thread: in a step, or in the job outside of the steps. null: none
+    private static Long currentJobExecutionId() {
+        StepContext stepContext = StepSynchronizationManager.getContext();
+        if (stepContext != null) {
+            return stepContext.getStepExecution().getJobExecutionId();
+        }
+        JobContext jobContext = JobSynchronizationManager.getContext();
+        return jobContext == null ? null : jobContext.getJobExecution().getId();
+    }
+
+    private class RoundTripHandler implements InvocationHandler {
+        private final Object target;
+
+        RoundTripHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            // identity of the proxy, not of the target
+            if (name.equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.startsWith("execute") || name.equals("commit") || name.equals("rollback")) {
+                roundTrip();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            // statements created by the connection: Statement, PreparedStatement or CallableStatement
+            if (result != null && Statement.class.isAssignableFrom(method.getReturnType())
+                && method.getReturnType().isInterface()) {
+                return proxy(method.getReturnType(), result);
+            }
+            return result;
+        }
+    }
+}
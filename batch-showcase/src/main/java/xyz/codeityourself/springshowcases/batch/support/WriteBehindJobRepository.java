@@ -0,0 +1,400 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * <p>
+ * A {@link JobRepository} writing the state of the running steps behind: the updates of a step execution and of its
+ * execution context made by the chunk transactions (i.e. while the step is {@link BatchStatus#STARTED}) are kept in
+ * memory and written by a background thread every <code>flushIntervalMillis</code>, the last state of every step
+ * only, all the steps in one transaction. Everything else goes straight to the persistent repository: the creation
+ * of the job and step executions, the first update of a step (start), its last updates (end, whatever the status)
+ * and the job execution.
+ * </p>
+ *
+ * <p>
+ * Restart: a state is only queued once the chunk transaction which made it is committed, so the database never
+ * holds the checkpoint of a rolled back chunk. A failing step writes its last state at its end, as usual. Only when
+ * the JVM dies in the middle of a step, the checkpoint in the database is up to <code>flushIntervalMillis</code> old:
+ * the restarted step then reads again some items which were already written. For this job, it depends on the
+ * writer:
+ * <ul>
+ * <li>jpa: the processor saves the customers with <code>merge()</code>, the rows are silently overwritten.</li>
+ * <li>jdbc and stateless: the INSERTs are rejected by the primary key of <code>customer</code>, the items are
+ * skipped on write and counted as KO, on top of the items which really failed.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Also, the readers of the job repository (job explorer, job operator...) see the progress of the running steps
+ * late, and a stop request ({@link org.springframework.batch.core.launch.JobOperator#stop(long)}) is only noticed
+ * by the step at the next flush.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class WriteBehindJobRepository implements JobRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindJobRepository.class);
+
+    private final JobRepository delegate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ScheduledExecutorService flusher;
+
+    // by step execution id, the steps being written behind
+    private final Map<Long, StepState> steps = new ConcurrentHashMap<>();
+
+    // the flushes and the ends of the steps write the same rows: one at a time, or a flush holding the (table) locks
+    // of the database could wait for a step end waiting for them
+    private final Object writeLock = new Object();
+
+    public WriteBehindJobRepository(JobRepository delegate, PlatformTransactionManager transactionManager,
+                                    long flushIntervalMillis) {
+        Assert.isTrue(flushIntervalMillis > 0, "flushIntervalMillis must be positive");
+        this.delegate = delegate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-repository-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                                       TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void update(StepExecution stepExecution) {
+        StepState state = steps.get(stepExecution.getId());
+        if (isRunning(stepExecution)) {
+            if (state == null) {
+                // start of the step: written now, then behind
+                delegate.update(stepExecution);
+                steps.put(stepExecution.getId(), new StepState(stepExecution));
+            } else {
+                StepExecution snapshot = snapshot(stepExecution);
+                afterCommit(() -> state.queue(snapshot));
+            }
+            return;
+        }
+
+        if (state == null) {
+            delegate.update(stepExecution);
+            return;
+        }
+        // end of the step: what is queued is older than the step execution itself
+        synchronized (writeLock) {
+            state.discard();
+            stepExecution.setVersion(state.version);
+            delegate.update(stepExecution);
+            steps.remove(stepExecution.getId());
+        }
+        if (state.queuedCount > 0) {
+            LOGGER.info("  [REPO   ] step {}: {} updates written in {} flushes", stepExecution.getStepName(),
+                        state.queuedCount, state.writtenCount);
+        }
+    }
+
+    @Override
+    public void updateExecutionContext(StepExecution stepExecution) {
+        StepState state = steps.get(stepExecution.getId());
+        if (state == null) {
+            delegate.updateExecutionContext(stepExecution);
+            return;
+        }
+        if (isRunning(stepExecution)) {
+            ExecutionContext snapshot = new ExecutionContext(stepExecution.getExecutionContext());
+            afterCommit(() -> state.queue(snapshot));
+            return;
+        }
+        synchronized (writeLock) {
+            state.discardContext();
+            delegate.updateExecutionContext(stepExecution);
+        }
+    }
+
+    /**
+     * Writes the queued states of the running steps.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            List<StepState> dirty = new ArrayList<>();
+            for (StepState state : steps.values()) {
+                if (state.isDirty()) {
+                    dirty.add(state);
+                }
+            }
+            if (dirty.isEmpty()) {
+                return;
+            }
+            // if the transaction fails, the states taken are lost, but newer ones will follow
+            transactionTemplate.execute(status -> {
+                for (StepState state : dirty) {
+                    state.write();
+                }
+                return null;
+            });
+            for (StepState state : dirty) {
+                state.committed();
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // kept queued, the next flush or the end of the step writes them
+            LOGGER.warn("Could not write the state of the running steps", e);
+        }
+    }
+
+    /**
+     * Writes the queued states and stops the background thread.
+     */
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private static boolean isRunning(StepExecution stepExecution) {
+        return stepExecution.getStatus() == BatchStatus.STARTED && stepExecution.getEndTime() == null;
+    }
+
+    // the state of the chunk transaction is queued only if it is committed
+    private static void afterCommit(Runnable queue) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            queue.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                queue.run();
+            }
+        });
+    }
+
+    // what the step execution dao writes, detached from the step execution updated by the chunks
+    private static StepExecution snapshot(StepExecution stepExecution) {
+        StepExecution snapshot = new StepExecution(stepExecution.getStepName(),
+                                                   detached(stepExecution.getJobExecution()));
+        snapshot.setId(stepExecution.getId());
+        snapshot.setStatus(stepExecution.getStatus());
+        snapshot.setStartTime(stepExecution.getStartTime());
+        snapshot.setEndTime(stepExecution.getEndTime());
+        snapshot.setExitStatus(stepExecution.getExitStatus());
+        snapshot.setCommitCount(stepExecution.getCommitCount());
+        snapshot.setReadCount(stepExecution.getReadCount());
+        snapshot.setFilterCount(stepExecution.getFilterCount());
+        snapshot.setWriteCount(stepExecution.getWriteCount());
+        snapshot.setReadSkipCount(stepExecution.getReadSkipCount());
+        snapshot.setProcessSkipCount(stepExecution.getProcessSkipCount());
+        snapshot.setWriteSkipCount(stepExecution.getWriteSkipCount());
+        snapshot.setRollbackCount(stepExecution.getRollbackCount());
+        return snapshot;
+    }
+
+    // SimpleJobRepository#update(StepExecution) synchronizes the status and version of the job execution of the step
+    // with the database: written behind, on a copy, not on the job execution of the running job
+    private static JobExecution detached(JobExecution jobExecution) {
+        JobExecution copy = new JobExecution(jobExecution.getJobInstance(), jobExecution.getId(),
+                                             jobExecution.getJobParameters(), jobExecution.getJobConfigurationName());
+        copy.setStatus(jobExecution.getStatus());
+        copy.setVersion(jobExecution.getVersion());
+        return copy;
+    }
+
+    /**
+     * What is queued for a running step. The version of the step execution in the database is kept here: the one of
+     * the step execution is not updated by the flushes, and is restored by the rolled back chunks. The version is
+     * only read and written under the write lock.
+     */
+    private class StepState {
+        private final StepExecution stepExecution;
+        private int version;
+        private int writtenVersion;
+        private StepExecution queuedStepExecution;
+        private ExecutionContext queuedContext;
+        private long queuedCount;
+        private long writtenCount;
+
+        StepState(StepExecution stepExecution) {
+            this.stepExecution = stepExecution;
+            this.version = stepExecution.getVersion();
+        }
+
+        synchronized void queue(StepExecution snapshot) {
+            queuedStepExecution = snapshot;
+            queuedCount++;
+        }
+
+        synchronized void queue(ExecutionContext snapshot) {
+            queuedContext = snapshot;
+        }
+
+        synchronized boolean isDirty() {
+            return queuedStepExecution != null || queuedContext != null;
+        }
+
+        synchronized void discard() {
+            queuedStepExecution = null;
+            queuedContext = null;
+        }
+
+        synchronized void discardContext() {
+            queuedContext = null;
+        }
+
+        // in the flush transaction. The version is only changed once it is committed, see flush().
+        void write() {
+            StepExecution stepSnapshot;
+            ExecutionContext contextSnapshot;
+            synchronized (this) {
+                stepSnapshot = queuedStepExecution;
+                contextSnapshot = queuedContext;
+                queuedStepExecution = null;
+                queuedContext = null;
+            }
+            if (contextSnapshot != null) {
+                StepExecution contextHolder = new StepExecution(stepExecution.getStepName(),
+                                                                detached(stepExecution.getJobExecution()));
+                contextHolder.setId(stepExecution.getId());
+                contextHolder.setExecutionContext(contextSnapshot);
+                delegate.updateExecutionContext(contextHolder);
+            }
+            writtenVersion = version;
+            if (stepSnapshot != null) {
+                stepSnapshot.setVersion(version);
+                delegate.update(stepSnapshot);
+                writtenVersion = stepSnapshot.getVersion();
+                if (stepSnapshot.isTerminateOnly()) {
+                    // the job is being stopped, see SimpleJobRepository#update(StepExecution): the only thing passed
+                    // on to the running step
+                    stepExecution.setTerminateOnly();
+                }
+            }
+        }
+
+        void committed() {
+            version = writtenVersion;
+            writtenCount++;
+        }
+    }
+
+    // everything below goes to the database directly. The queued states are written before any read.
+
+    @Override
+    public boolean isJobInstanceExists(String jobName, JobParameters jobParameters) {
+        return delegate.isJobInstanceExists(jobName, jobParameters);
+    }
+
+    @Override
+    public JobInstance createJobInstance(String jobName, JobParameters jobParameters) {
+        return delegate.createJobInstance(jobName, jobParameters);
+    }
+
+    @Override
+    public JobExecution createJobExecution(JobInstance jobInstance, JobParameters jobParameters,
+                                           String jobConfigurationLocation) {
+        return delegate.createJobExecution(jobInstance, jobParameters, jobConfigurationLocation);
+    }
+
+    @Override
+    public JobExecution createJobExecution(String jobName, JobParameters jobParameters)
+        throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException {
+        flush();
+        return delegate.createJobExecution(jobName, jobParameters);
+    }
+
+    @Override
+    public void update(JobExecution jobExecution) {
+        delegate.update(jobExecution);
+    }
+
+    @Override
+    public void add(StepExecution stepExecution) {
+        delegate.add(stepExecution);
+    }
+
+    @Override
+    public void addAll(Collection<StepExecution> stepExecutions) {
+        delegate.addAll(stepExecutions);
+    }
+
+    @Override
+    public void updateExecutionContext(JobExecution jobExecution) {
+        delegate.updateExecutionContext(jobExecution);
+    }
+
+    @Override
+    public StepExecution getLastStepExecution(JobInstance jobInstance, String stepName) {
+        flush();
+        return delegate.getLastStepExecution(jobInstance, stepName);
+    }
+
+    @Override
+    public int getStepExecutionCount(JobInstance jobInstance, String stepName) {
+        return delegate.getStepExecutionCount(jobInstance, stepName);
+    }
+
+    @Override
+    public JobExecution getLastJobExecution(String jobName, JobParameters jobParameters) {
+        flush();
+        return delegate.getLastJobExecution(jobName, jobParameters);
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.support.jfr;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+
+/**
+ * <p>
+ * Emits Java Flight Recorder events for the job, the steps, the chunk transactions and the calls of the item
+ * processor and writer of the steps it is registered on (the pages fetched by the readers are emitted by the readers,
+ * see {@link PageFetchEvent}). In a recording, the batch phases are then next to GC pauses, lock contention and
+ * socket reads of the JDBC driver: <code>-XX:StartFlightRecording</code>, or <code>jcmd &lt;pid&gt; JFR.start</code>
+ * on a running batch, then <code>jfr print --categories "Spring Batch" recording.jfr</code>.
+ * </p>
+ *
+ * <p>
+ * When no recording is running (or the events are disabled in it), the listener allocates nothing per item or per
+ * chunk: {@link jdk.jfr.Event#isEnabled()} is checked first, which the JIT reduces to a constant.
+ * </p>
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+public class BatchEventListener implements JobExecutionListener, StepExecutionListener, ChunkListener,
+    ItemProcessListener<Object, Object>, ItemWriteListener<Object> {
+
+    // only to check whether the events are recorded
+    private static final ChunkEvent CHUNK = new ChunkEvent();
+    private static final ProcessEvent PROCESS = new ProcessEvent();
+    private static final WriteEvent WRITE = new WriteEvent();
+
+    // by job execution id
+    private final Map<Long, JobEvent> jobEvents = new ConcurrentHashMap<>();
+
+    // by step execution id
+    private final Map<Long, StepEvent> stepEvents = new ConcurrentHashMap<>();
+
+    // of the thread
+    private final ThreadLocal<ChunkEvent> chunkEvent = new ThreadLocal<>();
+    private final ThreadLocal<ProcessEvent> processEvent = new ThreadLocal<>();
+    private final ThreadLocal<WriteEvent> writeEvent = new ThreadLocal<>();
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        JobEvent event = new JobEvent();
+        event.begin();
+        jobEvents.put(jobExecution.getId(), event);
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        JobEvent event = jobEvents.remove(jobExecution.getId());
+        if (event != null && event.shouldCommit()) {
+            event.jobName = jobExecution.getJobInstance().getJobName();
+            event.jobExecutionId = jobExecution.getId();
+            event.status = jobExecution.getStatus().name();
+            event.commit();
+        }
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        StepEvent event = new StepEvent();
+        event.begin();
+        stepEvents.put(stepExecution.getId(), event);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        StepEvent event = stepEvents.remove(stepExecution.getId());
+        if (event != null && event.shouldCommit()) {
+            event.stepName = stepExecution.getStepName();
+            event.jobExecutionId = stepExecution.getJobExecutionId();
+            event.status = stepExecution.getStatus().name();
+            event.readCount = stepExecution.getReadCount();
+            event.writeCount = stepExecution.getWriteCount();
+            event.skipCount = stepExecution.getSkipCount();
+            event.commitCount = stepExecution.getCommitCount();
+            event.rollbackCount = stepExecution.getRollbackCount();
+            event.commit();
+        }
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        if (CHUNK.isEnabled()) {
+            ChunkEvent event = new ChunkEvent();
+            event.begin();
+            chunkEvent.set(event);
+        }
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        endChunk(context, "committed");
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        endChunk(context, "rolledback");
+    }
+
+    private void endChunk(ChunkContext context, String outcome) {
+        ChunkEvent event = chunkEvent.get();
+        if (event == null) {
+            return;
+        }
+        chunkEvent.remove();
+        event.end();
+        if (event.shouldCommit()) {
+            event.stepName = context.getStepContext().getStepName();
+            event.jobExecutionId = context.getStepContext().getStepExecution().getJobExecutionId();
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void beforeProcess(Object item) {
+        if (PROCESS.isEnabled()) {
+            ProcessEvent event = new ProcessEvent();
+            event.begin();
+            processEvent.set(event);
+        }
+    }
+
+    @Override
+    public void afterProcess(Object item, Object result) {
+        endProcess(result == null ? "filtered" : "processed");
+        ChunkEvent chunk = chunkEvent.get();
+        if (chunk != null) {
+            chunk.processCount++;
+        }
+    }
+
+    @Override
+    public void onProcessError(Object item, Exception e) {
+        endProcess("failed");
+    }
+
+    private void endProcess(String outcome) {
+        ProcessEvent event = processEvent.get();
+        if (event == null) {
+            return;
+        }
+        processEvent.remove();
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void beforeWrite(List<?> items) {
+        if (WRITE.isEnabled()) {
+            WriteEvent event = new WriteEvent();
+            event.begin();
+            writeEvent.set(event);
+        }
+    }
+
+    @Override
+    public void afterWrite(List<?> items) {
+        endWrite(items, "written");
+        ChunkEvent chunk = chunkEvent.get();
+        if (chunk != null) {
+            chunk.writeCount += items.size();
+        }
+    }
+
+    @Override
+    public void onWriteError(Exception exception, List<?> items) {
+        endWrite(items, "failed");
+    }
+
+    private void endWrite(List<?> items, String outcome) {
+        WriteEvent event = writeEvent.get();
+        if (event == null) {
+            return;
+        }
+        writeEvent.remove();
+        event.end();
+        if (event.shouldCommit()) {
+            event.itemCount = items.size();
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+}
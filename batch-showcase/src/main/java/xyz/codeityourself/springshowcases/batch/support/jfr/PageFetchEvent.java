@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) Bao Ho (hotribao@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package xyz.codeityourself.springshowcases.batch.support.jfr;
+
+import java.util.List;
+import java.util.function.Supplier;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The query of a page of items by a reader, in the chunk thread or in the background thread prefetching the pages.
+ *
+ * @author Bao Ho (hotribao@gmail.com)
+ * @since 18.10.2026
+ */
+@Name(PageFetchEvent.NAME)
+@Label("Batch Page Fetch")
+@Category("Spring Batch")
+@Description("Query of a page of items by a reader")
+@StackTrace(false)
+public class PageFetchEvent extends Event {
+    public static final String NAME = "xyz.codeityourself.batch.PageFetch";
+
+    @Label("Reader")
+    String reader;
+
+    @Label("Page Size")
+    int pageSize;
+
+    @Label("Item Count")
+    int itemCount;
+
+    @Label("Outcome")
+    @Description("fetched or failed")
+    String outcome;
+
+    /**
+     * Fetches the page with <code>fetch</code>, in an event. When not recorded, the event is not even allocated
+     * once inlined (escape analysis).
+     */
+    public static <I> List<I> record(Class<?> reader, int pageSize, Supplier<List<I>> fetch) {
+        PageFetchEvent event = new PageFetchEvent();
+        event.begin();
+        List<I> page = null;
+        try {
+            page = fetch.get();
+            return page;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.reader = reader.getSimpleName();
+                event.pageSize = pageSize;
+                event.itemCount = page == null ? 0 : page.size();
+                event.outcome = page == null ? "failed" : "fetched";
+                event.commit();
+            }
+        }
+    }
+}
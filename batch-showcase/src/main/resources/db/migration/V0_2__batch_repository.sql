@@ -0,0 +1,106 @@
+-- Schema of the job repository, owned by flyway (spring.batch.initializer.enabled=false) so that it can be indexed
+-- below: on an empty database, flyway migrates before spring-boot would create it. Copy of schema-hsqldb.sql of
+-- spring-batch 3.0, IF NOT EXISTS: on a database migrated before, the tables were created by spring-boot already.
+
+CREATE TABLE IF NOT EXISTS BATCH_JOB_INSTANCE (
+    JOB_INSTANCE_ID BIGINT IDENTITY NOT NULL PRIMARY KEY ,
+    VERSION BIGINT ,
+    JOB_NAME VARCHAR(100) NOT NULL,
+    JOB_KEY VARCHAR(32) NOT NULL,
+    constraint JOB_INST_UN unique (JOB_NAME, JOB_KEY)
+) ;
+
+CREATE TABLE IF NOT EXISTS BATCH_JOB_EXECUTION (
+    JOB_EXECUTION_ID BIGINT IDENTITY NOT NULL PRIMARY KEY ,
+    VERSION BIGINT  ,
+    JOB_INSTANCE_ID BIGINT NOT NULL,
+    CREATE_TIME TIMESTAMP NOT NULL,
+    START_TIME TIMESTAMP DEFAULT NULL ,
+    END_TIME TIMESTAMP DEFAULT NULL ,
+    STATUS VARCHAR(10) ,
+    EXIT_CODE VARCHAR(2500) ,
+    EXIT_MESSAGE VARCHAR(2500) ,
+    LAST_UPDATED TIMESTAMP,
+    JOB_CONFIGURATION_LOCATION VARCHAR(2500) NULL,
+    constraint JOB_INST_EXEC_FK foreign key (JOB_INSTANCE_ID)
+    references BATCH_JOB_INSTANCE(JOB_INSTANCE_ID)
+) ;
+
+CREATE TABLE IF NOT EXISTS BATCH_JOB_EXECUTION_PARAMS (
+    JOB_EXECUTION_ID BIGINT NOT NULL ,
+    TYPE_CD VARCHAR(6) NOT NULL ,
+    KEY_NAME VARCHAR(100) NOT NULL ,
+    STRING_VAL VARCHAR(250) ,
+    DATE_VAL TIMESTAMP DEFAULT NULL ,
+    LONG_VAL BIGINT ,
+    DOUBLE_VAL DOUBLE PRECISION ,
+    IDENTIFYING CHAR(1) NOT NULL ,
+    constraint JOB_EXEC_PARAMS_FK foreign key (JOB_EXECUTION_ID)
+    references BATCH_JOB_EXECUTION(JOB_EXECUTION_ID)
+) ;
+
+CREATE TABLE IF NOT EXISTS BATCH_STEP_EXECUTION (
+    STEP_EXECUTION_ID BIGINT IDENTITY NOT NULL PRIMARY KEY ,
+    VERSION BIGINT NOT NULL,
+    STEP_NAME VARCHAR(100) NOT NULL,
+    JOB_EXECUTION_ID BIGINT NOT NULL,
+    START_TIME TIMESTAMP NOT NULL ,
+    END_TIME TIMESTAMP DEFAULT NULL ,
+    STATUS VARCHAR(10) ,
+    COMMIT_COUNT BIGINT ,
+    READ_COUNT BIGINT ,
+    FILTER_COUNT BIGINT ,
+    WRITE_COUNT BIGINT ,
+    READ_SKIP_COUNT BIGINT ,
+    WRITE_SKIP_COUNT BIGINT ,
+    PROCESS_SKIP_COUNT BIGINT ,
+    ROLLBACK_COUNT BIGINT ,
+    EXIT_CODE VARCHAR(2500) ,
+    EXIT_MESSAGE VARCHAR(2500) ,
+    LAST_UPDATED TIMESTAMP,
+    constraint JOB_EXEC_STEP_FK foreign key (JOB_EXECUTION_ID)
+    references BATCH_JOB_EXECUTION(JOB_EXECUTION_ID)
+) ;
+
+CREATE TABLE IF NOT EXISTS BATCH_STEP_EXECUTION_CONTEXT (
+    STEP_EXECUTION_ID BIGINT NOT NULL PRIMARY KEY,
+    SHORT_CONTEXT VARCHAR(2500) NOT NULL,
+    SERIALIZED_CONTEXT LONGVARCHAR ,
+    constraint STEP_EXEC_CTX_FK foreign key (STEP_EXECUTION_ID)
+    references BATCH_STEP_EXECUTION(STEP_EXECUTION_ID)
+) ;
+
+CREATE TABLE IF NOT EXISTS BATCH_JOB_EXECUTION_CONTEXT (
+    JOB_EXECUTION_ID BIGINT NOT NULL PRIMARY KEY,
+    SHORT_CONTEXT VARCHAR(2500) NOT NULL,
+    SERIALIZED_CONTEXT LONGVARCHAR ,
+    constraint JOB_EXEC_CTX_FK foreign key (JOB_EXECUTION_ID)
+    references BATCH_JOB_EXECUTION(JOB_EXECUTION_ID)
+) ;
+
+CREATE TABLE IF NOT EXISTS BATCH_STEP_EXECUTION_SEQ (
+    ID BIGINT IDENTITY
+);
+CREATE TABLE IF NOT EXISTS BATCH_JOB_EXECUTION_SEQ (
+    ID BIGINT IDENTITY
+);
+CREATE TABLE IF NOT EXISTS BATCH_JOB_SEQ (
+    ID BIGINT IDENTITY
+);
+
+-- Indexes of the job repository queries which scan more and more rows as the runs accumulate (the primary and the
+-- foreign keys are indexed already).
+
+-- last instances of a job, ORDER BY JOB_INSTANCE_ID DESC: JobExplorer#getJobInstances (run by "-next" at startup),
+-- JobInstanceDao#getLastJobInstance, the purge job
+CREATE INDEX BATCH_JOB_INST_NAME_ID_IX ON BATCH_JOB_INSTANCE (JOB_NAME, JOB_INSTANCE_ID);
+
+-- executions of an instance which are not ended or ended after a date: the purge job
+CREATE INDEX BATCH_JOB_EXEC_INST_END_IX ON BATCH_JOB_EXECUTION (JOB_INSTANCE_ID, END_TIME);
+
+-- running executions, END_TIME IS NULL: JobExplorer#findRunningJobExecutions, JobOperator#getRunningExecutions
+CREATE INDEX BATCH_JOB_EXEC_END_IX ON BATCH_JOB_EXECUTION (END_TIME);
+
+-- last execution of a step of an instance: JobRepository#getLastStepExecution and #getStepExecutionCount, run by
+-- every step at its start
+CREATE INDEX BATCH_STEP_EXEC_JOB_NAME_IX ON BATCH_STEP_EXECUTION (JOB_EXECUTION_ID, STEP_NAME);